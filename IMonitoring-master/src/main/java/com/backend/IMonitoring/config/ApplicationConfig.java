@@ -1,8 +1,14 @@
 package com.backend.IMonitoring.config;
 
 import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.BoundedPasswordEncoder;
+import com.backend.IMonitoring.security.CalibratedBCryptPasswordEncoder;
 import com.backend.IMonitoring.security.UserDetailsImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +17,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -29,10 +34,10 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -41,8 +46,38 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
+    // Defaults only: values set in application.properties take precedence. Static, so building it does not instantiate
+    // this configuration and its UserRepository while the entity manager factory is still being created.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${app.jpa.batch-size:500}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    // Password hashing runs on its own bounded pool so a login rush cannot take every core from the request threads
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            @Value("${app.security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${app.security.password-hashing.bcrypt-cost:0}") int bcryptCost,
+            @Value("${app.security.password-hashing.target-ms:250}") long targetMillis,
+            @Value("${app.security.password-hashing.min-cost:10}") int minCost,
+            @Value("${app.security.password-hashing.max-cost:14}") int maxCost,
+            @Value("${app.security.password-hashing.allow-downgrade:false}") boolean allowDowngrade,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CalibratedBCryptPasswordEncoder bcrypt = bcryptCost > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptCost, allowDowngrade)
+                : CalibratedBCryptPasswordEncoder.calibrated(targetMillis, minCost, maxCost, allowDowngrade);
+        Gauge.builder("auth.password.cost", bcrypt, CalibratedBCryptPasswordEncoder::getCost)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, timeoutMillis,
+                retryAfterSeconds, meterRegistry);
     }
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package com.backend.IMonitoring.config;
 
 import com.backend.IMonitoring.service.JwtService;
 
+import com.backend.IMonitoring.security.UserDetailsImpl;
 import com.backend.IMonitoring.service.UserDetailsServiceImpl;
+import com.backend.IMonitoring.service.UserTokenVersions;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +26,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserTokenVersions userTokenVersions;
 
     @Override
     protected void doFilterInternal(
@@ -40,11 +44,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // One verification per token; repeated tokens are answered from the claims cache
+        Claims claims = jwtService.parseValid(jwt);
+        userEmail = claims != null ? claims.getSubject() : null;
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            UserDetails userDetails = resolvePrincipal(claims);
+            if (userDetails != null && userEmail.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -58,4 +64,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // In stateless mode a token whose version is current is trusted as is; unknown users are read once and registered
+    private UserDetails resolvePrincipal(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        Number version = claims.get("ver", Number.class);
+        boolean stateless = userTokenVersions.isEnabled() && userId != null && version != null;
+        if (stateless) {
+            Boolean accepted = userTokenVersions.accepts(userId, version.longValue());
+            if (Boolean.FALSE.equals(accepted)) {
+                return null;
+            }
+            if (Boolean.TRUE.equals(accepted)) {
+                UserDetailsImpl principal = UserDetailsImpl.fromClaims(claims);
+                return principal.isEnabled() ? principal : null;
+            }
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        if (stateless && userDetails instanceof UserDetailsImpl impl) {
+            long current = impl.getUserEntity().getTokenVersion();
+            userTokenVersions.register(impl.getId(), current);
+            if (version.longValue() != current) {
+                return null;
+            }
+        }
+        return userDetails;
+    }
+}
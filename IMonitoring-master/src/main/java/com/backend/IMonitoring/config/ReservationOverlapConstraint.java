@@ -0,0 +1,74 @@
+package com.backend.IMonitoring.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs the PostgreSQL exclusion constraint that makes overlapping active reservations of one classroom impossible
+ * at the database level: a stored {@code tstzrange(start_time, end_time)} column plus a GiST EXCLUDE on
+ * (classroom_id =, time_range &&) restricted to PENDIENTE/CONFIRMADA rows. The statements are idempotent and run after
+ * Hibernate has created or updated the schema; on other databases, or if existing rows already overlap, the
+ * application keeps relying on the service-level check.
+ */
+@Component
+public class ReservationOverlapConstraint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationOverlapConstraint.class);
+
+    public static final String CONSTRAINT_NAME = "reservations_no_overlap";
+    public static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reservations.overlap-constraint.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean installed;
+
+    public ReservationOverlapConstraint(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isInstalled() {
+        return installed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void install() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(product)) {
+                logger.info("Reservation overlap constraint skipped: database is {}.", product);
+                return;
+            }
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute("ALTER TABLE reservations ADD COLUMN IF NOT EXISTS time_range tstzrange " +
+                    "GENERATED ALWAYS AS (tstzrange(start_time, end_time, '[)')) STORED");
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, CONSTRAINT_NAME);
+            if (!Boolean.TRUE.equals(exists)) {
+                jdbcTemplate.execute("ALTER TABLE reservations ADD CONSTRAINT " + CONSTRAINT_NAME + " " +
+                        "EXCLUDE USING gist (classroom_id WITH =, time_range WITH &&) " +
+                        "WHERE (status IN ('PENDIENTE', 'CONFIRMADA'))");
+                logger.info("Reservation overlap exclusion constraint created.");
+            }
+            installed = true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not install the reservation overlap constraint; overlaps are only checked by the service: {}",
+                    e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.backend.IMonitoring.config;
 
 import com.backend.IMonitoring.model.Rol;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,6 +37,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Async dispatches of SSE streams were already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                     "/api/auth/**",
                     "/v3/api-docs/**",
@@ -52,12 +55,15 @@ public class SecurityConfig {
 
                 
                 .requestMatchers(HttpMethod.GET, "/api/classrooms", "/api/classrooms/{id}").authenticated()
-                .requestMatchers(HttpMethod.GET, "/api/classrooms/availability", "/api/classrooms/{classroomId}/reservations").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/classrooms/availability", "/api/classrooms/free-slots", "/api/classrooms/occupancy/stream", "/api/classrooms/{classroomId}/reservations").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/classrooms").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.PUT, "/api/classrooms/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.DELETE, "/api/classrooms/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
 
                 
+                .requestMatchers(HttpMethod.POST, "/api/reservations/bulk").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name())
+                .requestMatchers("/api/reservations/series", "/api/reservations/series/**").authenticated() // Owner checks in service
+                .requestMatchers(HttpMethod.GET, "/api/reservations/export").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name())
                 .requestMatchers(HttpMethod.POST, "/api/reservations").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.PROFESOR.name(), "ROLE_" + Rol.TUTOR.name(), "ROLE_" + Rol.ESTUDIANTE.name(), "ROLE_" + Rol.COORDINADOR.name())
                 .requestMatchers(HttpMethod.GET, "/api/reservations", "/api/reservations/{id}", "/api/reservations/filter", "/api/reservations/my-list").authenticated() // Added /filter and /my-list
                 .requestMatchers(HttpMethod.PUT, "/api/reservations/{id}/status").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name())
@@ -80,6 +86,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.DELETE, "/api/users/{id}").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name()) // MODIFICADO: COORDINADOR puede eliminar (con lógica en servicio)
                 .requestMatchers(HttpMethod.GET, "/api/users/{userId}/reservations").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name())
 
+                
+                .requestMatchers(HttpMethod.GET, "/api/analytics/**").hasAnyAuthority("ROLE_" + Rol.ADMIN.name(), "ROLE_" + Rol.COORDINADOR.name())
+
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
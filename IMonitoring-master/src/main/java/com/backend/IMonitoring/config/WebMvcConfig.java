@@ -0,0 +1,20 @@
+package com.backend.IMonitoring.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    // Streamed exports run as async requests; the container default (30 s on Tomcat) would cut large ones short.
+    // SSE emitters set their own timeout.
+    @Value("${app.web.async-timeout-ms:1800000}")
+    private long asyncTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+}
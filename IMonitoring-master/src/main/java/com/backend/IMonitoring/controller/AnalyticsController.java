@@ -0,0 +1,35 @@
+package com.backend.IMonitoring.controller;
+
+import com.backend.IMonitoring.dto.UtilizationReportDTO;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.service.UtilizationRollups;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final UtilizationRollups utilizationRollups;
+
+    @GetMapping("/utilization")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR')")
+    public ResponseEntity<UtilizationReportDTO> getUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "BUILDING") UtilizationRollups.GroupBy groupBy,
+            @RequestParam(defaultValue = "NONE") UtilizationRollups.Interval interval,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) ClassroomType type) {
+        return ResponseEntity.ok(utilizationRollups.report(from, to, groupBy, interval, buildingId, type));
+    }
+}
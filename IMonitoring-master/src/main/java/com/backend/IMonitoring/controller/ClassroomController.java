@@ -2,18 +2,29 @@ package com.backend.IMonitoring.controller;
 
 import com.backend.IMonitoring.dto.AvailabilityRequest;
 import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ClassroomOccupancyDTO;
 import com.backend.IMonitoring.dto.ClassroomRequestDTO;
+import com.backend.IMonitoring.dto.FreeSlotDTO;
 import com.backend.IMonitoring.model.ClassroomType;
 import com.backend.IMonitoring.model.Reservation; 
+import com.backend.IMonitoring.service.CalendarFeedService;
+import com.backend.IMonitoring.service.ClassroomCatalog;
 import com.backend.IMonitoring.service.ClassroomService;
+import com.backend.IMonitoring.service.FreeSlotFinder;
+import com.backend.IMonitoring.service.OccupancyBroadcaster;
+import com.backend.IMonitoring.utils.ICalendarWriter;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -27,6 +38,9 @@ import java.util.List;
 public class ClassroomController {
 
     private final ClassroomService classroomService;
+    private final FreeSlotFinder freeSlotFinder;
+    private final OccupancyBroadcaster occupancyBroadcaster;
+    private final CalendarFeedService calendarFeedService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -60,10 +74,18 @@ public class ClassroomController {
         return ResponseEntity.noContent().build();
     }
 
+    // Serves the pre-serialized catalog; a matching If-None-Match gets 304 without touching the database
     @GetMapping
-    public ResponseEntity<List<ClassroomDTO>> getAllClassrooms() {
-        List<ClassroomDTO> classrooms = classroomService.getAllClassroomsDTO();
-        return ResponseEntity.ok(classrooms);
+    public ResponseEntity<byte[]> getAllClassrooms(WebRequest request) {
+        ClassroomCatalog.Snapshot catalog = classroomService.getClassroomCatalog();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.json());
     }
 
     @GetMapping(params = "type")
@@ -90,12 +112,55 @@ public class ClassroomController {
         return ResponseEntity.ok(classrooms);
     }
 
+    @GetMapping("/occupancy")
+    public ResponseEntity<ClassroomOccupancyDTO> getOccupancyBitmaps(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> classroomIds) {
+        ClassroomOccupancyDTO occupancy = classroomService.getOccupancyBitmaps(from, to, classroomIds);
+        return ResponseEntity.ok(occupancy);
+    }
+
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<FreeSlotDTO>> findFreeSlots(
+            @RequestParam String duration,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) ClassroomType type,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<FreeSlotDTO> slots = freeSlotFinder.findFreeSlots(duration, from, to, minCapacity, type, buildingId, limit);
+        return ResponseEntity.ok(slots);
+    }
+
+    @GetMapping(value = "/occupancy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOccupancy() {
+        return occupancyBroadcaster.subscribe();
+    }
+
     @PostMapping("/check-availability")
     public ResponseEntity<Boolean> checkClassroomAvailability(@Valid @RequestBody AvailabilityRequest availabilityRequest) {
         boolean isAvailable = classroomService.checkAvailability(availabilityRequest);
         return ResponseEntity.ok(isAvailable);
     }
 
+    // Calendar clients poll this; an unchanged feed is answered with 304 from the version stamp alone
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<byte[]> getClassroomCalendar(@PathVariable String id, WebRequest request) {
+        CalendarFeedService.Stamp stamp = calendarFeedService.classroomStamp(id);
+        if (request.checkNotModified(calendarFeedService.etag(stamp), calendarFeedService.lastModified(stamp))) {
+            return null;
+        }
+        CalendarFeedService.Feed feed = calendarFeedService.classroomFeed(id);
+        return ResponseEntity.ok()
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .contentType(ICalendarWriter.MEDIA_TYPE)
+                .body(feed.body());
+    }
+
     @GetMapping("/{classroomId}/reservations")
     public ResponseEntity<List<Reservation>> getReservationsForClassroom(
             @PathVariable String classroomId,
@@ -1,26 +1,38 @@
 package com.backend.IMonitoring.controller;
 
+import com.backend.IMonitoring.dto.BulkReservationResultDTO;
+import com.backend.IMonitoring.dto.CursorPageDTO;
 import com.backend.IMonitoring.dto.ReservationRequestDTO;
 import com.backend.IMonitoring.dto.ReservationResponseDTO;
+import com.backend.IMonitoring.dto.ReservationSeriesRequestDTO;
+import com.backend.IMonitoring.dto.ReservationSeriesResponseDTO;
 import com.backend.IMonitoring.model.ReservationStatus;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.repository.UserRepository;
 import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.service.ReservationImportService;
+import com.backend.IMonitoring.service.ReservationSeriesService;
 import com.backend.IMonitoring.service.ReservationService;
 import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
+import com.backend.IMonitoring.utils.ReservationExportWriter;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.Instant;
+import java.util.List;
 
 class UpdateStatusRequest {
     private ReservationStatus status;
@@ -35,8 +47,11 @@ class UpdateStatusRequest {
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationImportService reservationImportService;
+    private final ReservationSeriesService reservationSeriesService;
     private final UserRepository userRepository;
 
+    // May be the detached, password-less user rebuilt from the token claims; services load by id before saving it
     private User getCurrentUserEntity(UserDetails userDetails) {
         if (userDetails == null) {
             throw new UnauthorizedAccessException("No se pudo obtener el principal de autenticación.");
@@ -68,6 +83,49 @@ public class ReservationController {
         return ResponseEntity.ok(reservationDTOsPage);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false) String classroomId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false, defaultValue = "startTime") String sortField,
+            @RequestParam(required = false, defaultValue = "asc") String sortDirection) {
+
+        ReservationExportWriter.Format exportFormat = ReservationExportWriter.Format.parse(format);
+        StreamingResponseBody body = reservationService.exportReservations(
+                classroomId, userId, status, startDate, endDate, sortField, sortDirection, exportFormat
+        );
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("reservations." + exportFormat.extension()).build().toString())
+                .body(body);
+    }
+
+    // Keyset mode: selected by the presence of 'after' (empty for the first page); no total count is computed.
+    @GetMapping(value = "/filter", params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR')")
+    public ResponseEntity<CursorPageDTO<ReservationResponseDTO>> getAdminFilteredReservationsAfter(
+            @RequestParam(required = false) String classroomId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false, defaultValue = "startTime") String sortField,
+            @RequestParam(required = false, defaultValue = "desc") String sortDirection,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "10") int size) {
+
+        CursorPageDTO<ReservationResponseDTO> reservationDTOs = reservationService.getAllReservationsAfter(
+                classroomId, userId, status, startDate, endDate, sortField, sortDirection, after, size
+        );
+        return ResponseEntity.ok(reservationDTOs);
+    }
+
     @GetMapping("/my-list")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Page<ReservationResponseDTO>> getMyReservations(
@@ -97,6 +155,35 @@ public class ReservationController {
         return ResponseEntity.ok(reservationDTOsPage);
     }
 
+    @GetMapping(value = "/my-list", params = "after")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPageDTO<ReservationResponseDTO>> getMyReservationsAfter(
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails,
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false, defaultValue = "startTime") String sortField,
+            @RequestParam(required = false, defaultValue = "desc") String sortDirection,
+            @RequestParam(name = "upcomingOnly", required = false) Boolean upcomingOnlyParam,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "10") int size) {
+
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        CursorPageDTO<ReservationResponseDTO> reservationDTOs = reservationService.getFilteredUserReservationsAfter(
+                currentAppUser.getId(),
+                status,
+                sortField,
+                sortDirection,
+                after,
+                size,
+                upcomingOnlyParam != null && upcomingOnlyParam,
+                startDate,
+                endDate,
+                currentAppUser
+        );
+        return ResponseEntity.ok(reservationDTOs);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ReservationResponseDTO> getReservationById(
@@ -118,6 +205,61 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdReservationDTO);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR')")
+    public ResponseEntity<BulkReservationResultDTO> importReservations(
+            @RequestBody List<ReservationRequestDTO> reservationRequestDTOs,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.ok(reservationImportService.importReservations(reservationRequestDTOs, currentAppUser));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR')")
+    public ResponseEntity<BulkReservationResultDTO> importReservationsCsv(
+            @RequestBody String csv,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.ok(reservationImportService.importCsv(csv, currentAppUser));
+    }
+
+    @PostMapping("/series")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR', 'ESTUDIANTE', 'PROFESOR', 'TUTOR')")
+    public ResponseEntity<ReservationSeriesResponseDTO> createReservationSeries(
+            @Valid @RequestBody ReservationSeriesRequestDTO seriesRequestDTO,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationSeriesService.createSeries(seriesRequestDTO, currentAppUser));
+    }
+
+    @GetMapping("/series/{seriesId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ReservationSeriesResponseDTO> getReservationSeries(
+            @PathVariable String seriesId,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.ok(reservationSeriesService.getSeries(seriesId, currentAppUser));
+    }
+
+    @PutMapping("/series/{seriesId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ReservationSeriesResponseDTO> updateReservationSeries(
+            @PathVariable String seriesId,
+            @Valid @RequestBody ReservationSeriesRequestDTO seriesRequestDTO,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.ok(reservationSeriesService.updateSeries(seriesId, seriesRequestDTO, currentAppUser));
+    }
+
+    @PatchMapping("/series/{seriesId}/cancel")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ReservationSeriesResponseDTO> cancelReservationSeries(
+            @PathVariable String seriesId,
+            @AuthenticationPrincipal UserDetailsImpl currentUserDetails) {
+        User currentAppUser = getCurrentUserEntity(currentUserDetails);
+        return ResponseEntity.ok(reservationSeriesService.cancelSeries(seriesId, currentAppUser));
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('ADMIN', 'COORDINADOR', 'ESTUDIANTE', 'PROFESOR', 'TUTOR')") // Updated PreAuthorize for PATCH /status
     public ResponseEntity<ReservationResponseDTO> updateReservationStatus(
@@ -8,20 +8,24 @@ import com.backend.IMonitoring.model.ReservationStatus;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.repository.UserRepository;
 import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.service.CalendarFeedService;
 import com.backend.IMonitoring.service.ReservationService;
 import com.backend.IMonitoring.service.UserService;
 import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
+import com.backend.IMonitoring.utils.ICalendarWriter;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -38,8 +42,10 @@ public class UserController {
 
     private final UserService userService;
     private final ReservationService reservationService;
+    private final CalendarFeedService calendarFeedService;
     private final UserRepository userRepository;
 
+    // May be the detached, password-less user rebuilt from the token claims; services load by id before saving it
     private User getCurrentUserEntity(UserDetails userDetails) {
         if (userDetails == null) {
             throw new UnauthorizedAccessException("No se pudo obtener el principal de autenticación.");
@@ -161,6 +167,23 @@ public class UserController {
         return ResponseEntity.ok(reservations);
     }
 
+    @GetMapping("/me/calendar.ics")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<byte[]> getCurrentUserCalendar(@AuthenticationPrincipal UserDetailsImpl currentUserDetails, WebRequest request) {
+        User appUser = getCurrentUserEntity(currentUserDetails);
+        CalendarFeedService.Stamp stamp = calendarFeedService.userStamp(appUser.getId());
+        if (request.checkNotModified(calendarFeedService.etag(stamp), calendarFeedService.lastModified(stamp))) {
+            return null;
+        }
+        CalendarFeedService.Feed feed = calendarFeedService.userFeed(appUser);
+        return ResponseEntity.ok()
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .contentType(ICalendarWriter.MEDIA_TYPE)
+                .body(feed.body());
+    }
+
     @GetMapping("/me/reservations")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Page<ReservationResponseDTO>> getCurrentUserReservations(
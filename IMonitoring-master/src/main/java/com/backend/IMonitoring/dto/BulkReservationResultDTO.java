@@ -0,0 +1,29 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationResultDTO {
+    private int total;
+    private int accepted;
+    private int rejected;
+    private List<RowResult> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row; // 1-based position in the submitted batch
+        private boolean accepted;
+        private String reservationId;
+        private String message;
+    }
+}
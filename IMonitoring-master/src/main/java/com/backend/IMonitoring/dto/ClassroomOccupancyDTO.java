@@ -0,0 +1,21 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassroomOccupancyDTO {
+    private Instant from;
+    private Instant to;
+    private int slotMinutes;
+    // classroomId -> one character per slot starting at 'from': '1' busy, '0' free
+    private Map<String, String> busy;
+}
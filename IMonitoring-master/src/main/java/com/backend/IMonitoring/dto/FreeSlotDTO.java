@@ -0,0 +1,25 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ClassroomType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDTO {
+    private String classroomId;
+    private String classroomName;
+    private String buildingName;
+    private Integer capacity;
+    private ClassroomType type;
+    private Instant start;
+    private Instant end;
+    // End of the free gap the slot was taken from, capped at the requested 'to'
+    private Instant freeUntil;
+}
@@ -0,0 +1,32 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Payload of the occupancy stream. Which fields are set depends on the SSE event name:
+ * snapshot (occupiedClassroomIds, freeClassroomIds), occupancy (classroomId, occupied), removed (classroomId) and
+ * reservation (reservationId, classroomId, previousStatus, status).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OccupancyEventDTO {
+    private Instant at;
+    private String classroomId;
+    private Boolean occupied;
+    private String reservationId;
+    private ReservationStatus previousStatus;
+    private ReservationStatus status;
+    private List<String> occupiedClassroomIds;
+    private List<String> freeClassroomIds;
+}
@@ -0,0 +1,43 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of the columns {@link ReservationResponseDTO} needs, read in one statement by the list endpoints.
+ */
+public record ReservationRow(String id, String purpose, Instant startTime, Instant endTime,
+                             ReservationStatus status, LocalDateTime createdAt,
+                             String userId, String userName, String userEmail, Rol userRole,
+                             String classroomId, String classroomName, ClassroomType classroomType,
+                             String buildingName) {
+
+    public ReservationResponseDTO toResponseDTO() {
+        ReservationResponseDTO dto = new ReservationResponseDTO();
+        dto.setId(id);
+        dto.setPurpose(purpose);
+        dto.setStartTime(startTime);
+        dto.setEndTime(endTime);
+        dto.setStatus(status);
+        dto.setCreatedAt(createdAt);
+
+        ReservationResponseDTO.UserSummaryDTO userSummary = new ReservationResponseDTO.UserSummaryDTO();
+        userSummary.setId(userId);
+        userSummary.setName(userName);
+        userSummary.setEmail(userEmail);
+        userSummary.setRole(userRole);
+        dto.setUser(userSummary);
+
+        ReservationResponseDTO.ClassroomSummaryDTO classroomSummary = new ReservationResponseDTO.ClassroomSummaryDTO();
+        classroomSummary.setId(classroomId);
+        classroomSummary.setName(classroomName);
+        classroomSummary.setType(classroomType);
+        classroomSummary.setBuildingName(buildingName);
+        dto.setClassroom(classroomSummary);
+        return dto;
+    }
+}
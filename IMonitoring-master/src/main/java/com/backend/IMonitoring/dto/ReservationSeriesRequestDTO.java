@@ -0,0 +1,55 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesRequestDTO {
+
+    @NotBlank(message = "El ID del aula es obligatorio.")
+    private String classroomId;
+
+    private String userId;
+
+    @NotBlank(message = "El propósito es obligatorio.")
+    private String purpose;
+
+    // Start and end of the first occurrence
+    @NotNull(message = "La hora de inicio es obligatoria.")
+    private Instant startTime;
+
+    @NotNull(message = "La hora de fin es obligatoria.")
+    private Instant endTime;
+
+    // Defaults to the weekday of startTime
+    private List<DayOfWeek> daysOfWeek;
+
+    @Min(value = 1, message = "El intervalo de semanas debe ser al menos 1.")
+    private Integer intervalWeeks;
+
+    private LocalDate until;
+
+    @Min(value = 1, message = "El número de repeticiones debe ser al menos 1.")
+    private Integer count;
+
+    private List<LocalDate> exceptionDates;
+
+    // IANA zone id used to keep the local start time; defaults to app.time-zone
+    private String timeZone;
+
+    private ReservationStatus status;
+}
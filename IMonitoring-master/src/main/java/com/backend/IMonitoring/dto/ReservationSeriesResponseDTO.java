@@ -0,0 +1,33 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesResponseDTO {
+    private String id;
+    private String classroomId;
+    private String userId;
+    private String purpose;
+    private Instant firstStartTime;
+    private Instant firstEndTime;
+    private String timeZone;
+    private List<DayOfWeek> daysOfWeek;
+    private int intervalWeeks;
+    private LocalDate until;
+    private Integer count;
+    private List<LocalDate> exceptionDates;
+    private LocalDateTime createdAt;
+    private List<ReservationResponseDTO> occurrences;
+}
@@ -0,0 +1,7 @@
+package com.backend.IMonitoring.dto;
+
+/**
+ * Current token version of a user, read in batches to refresh the in-memory revocation map.
+ */
+public record UserTokenVersion(String id, long tokenVersion) {
+}
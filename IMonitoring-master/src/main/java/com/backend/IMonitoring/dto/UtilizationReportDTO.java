@@ -0,0 +1,47 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationReportDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private String timeZone;
+    private String groupBy;
+    private String interval;
+    private List<GroupDTO> groups;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupDTO {
+        private String key;
+        private String name;
+        private int classroomCount;
+        private long bookedMinutes;
+        // Index = hour of day (0-23) in the report time zone
+        private long[] minutesByHour;
+        // [day of week, Monday = 0][hour of day], for heatmaps
+        private long[][] minutesByWeekdayAndHour;
+        // Only present when an interval is requested
+        private List<PeriodDTO> series;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PeriodDTO {
+        private LocalDate start;
+        private long bookedMinutes;
+    }
+}
@@ -0,0 +1,23 @@
+package com.backend.IMonitoring.event;
+
+/**
+ * Published by the building write paths once per created, updated or deleted building.
+ */
+public record BuildingChangedEvent(String buildingId, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static BuildingChangedEvent created(String buildingId) {
+        return new BuildingChangedEvent(buildingId, Type.CREATED);
+    }
+
+    public static BuildingChangedEvent updated(String buildingId) {
+        return new BuildingChangedEvent(buildingId, Type.UPDATED);
+    }
+
+    public static BuildingChangedEvent deleted(String buildingId) {
+        return new BuildingChangedEvent(buildingId, Type.DELETED);
+    }
+}
@@ -0,0 +1,23 @@
+package com.backend.IMonitoring.event;
+
+/**
+ * Published by the classroom write paths once per created, updated or deleted classroom.
+ */
+public record ClassroomChangedEvent(String classroomId, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ClassroomChangedEvent created(String classroomId) {
+        return new ClassroomChangedEvent(classroomId, Type.CREATED);
+    }
+
+    public static ClassroomChangedEvent updated(String classroomId) {
+        return new ClassroomChangedEvent(classroomId, Type.UPDATED);
+    }
+
+    public static ClassroomChangedEvent deleted(String classroomId) {
+        return new ClassroomChangedEvent(classroomId, Type.DELETED);
+    }
+}
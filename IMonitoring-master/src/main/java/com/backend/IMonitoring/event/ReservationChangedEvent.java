@@ -0,0 +1,19 @@
+package com.backend.IMonitoring.event;
+
+/**
+ * Published by the reservation write paths. {@code before} is null for creations and {@code after} is null for deletions.
+ */
+public record ReservationChangedEvent(ReservationSnapshot before, ReservationSnapshot after) {
+
+    public static ReservationChangedEvent created(ReservationSnapshot after) {
+        return new ReservationChangedEvent(null, after);
+    }
+
+    public static ReservationChangedEvent updated(ReservationSnapshot before, ReservationSnapshot after) {
+        return new ReservationChangedEvent(before, after);
+    }
+
+    public static ReservationChangedEvent deleted(ReservationSnapshot before) {
+        return new ReservationChangedEvent(before, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.backend.IMonitoring.event;
+
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of the fields of a reservation that the in-memory availability structures care about.
+ */
+public record ReservationSnapshot(
+        String id,
+        String classroomId,
+        String userId,
+        Instant startTime,
+        Instant endTime,
+        ReservationStatus status) {
+
+    public static ReservationSnapshot of(Reservation reservation) {
+        return new ReservationSnapshot(
+                reservation.getId(),
+                reservation.getClassroom() != null ? reservation.getClassroom().getId() : null,
+                reservation.getUser() != null ? reservation.getUser().getId() : null,
+                reservation.getStartTime(),
+                reservation.getEndTime(),
+                reservation.getStatus());
+    }
+
+    /**
+     * PENDIENTE and CONFIRMADA reservations block their slot.
+     */
+    public boolean isActive() {
+        return status == ReservationStatus.PENDIENTE || status == ReservationStatus.CONFIRMADA;
+    }
+}
@@ -0,0 +1,10 @@
+package com.backend.IMonitoring.event;
+
+import java.util.List;
+
+/**
+ * Published by the archiver for each chunk of finished reservations moved to {@code reservations_archive}. Unlike a
+ * deletion the reservations still happened, so history-based views keep them.
+ */
+public record ReservationsArchivedEvent(List<ReservationSnapshot> reservations) {
+}
@@ -0,0 +1,19 @@
+package com.backend.IMonitoring.event;
+
+/**
+ * Published by the user write paths once per updated or deleted user, with the token version after the change.
+ */
+public record UserChangedEvent(String userId, long tokenVersion, Type type) {
+
+    public enum Type {
+        UPDATED, DELETED
+    }
+
+    public static UserChangedEvent updated(String userId, long tokenVersion) {
+        return new UserChangedEvent(userId, tokenVersion, Type.UPDATED);
+    }
+
+    public static UserChangedEvent deleted(String userId) {
+        return new UserChangedEvent(userId, Long.MAX_VALUE, Type.DELETED);
+    }
+}
@@ -0,0 +1,77 @@
+package com.backend.IMonitoring.model;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * A finished reservation moved out of {@code reservations} by the archiver. The row is self-contained: user, classroom
+ * and building names are copied at archive time, there are no foreign keys, and history reads need no joins.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reservations_archive", indexes = {
+        @Index(name = "idx_reservations_archive_start_time_id", columnList = "start_time, id"),
+        @Index(name = "idx_reservations_archive_user_start_time_id", columnList = "user_id, start_time, id"),
+        @Index(name = "idx_reservations_archive_classroom_start_time", columnList = "classroom_id, start_time")
+})
+public class ArchivedReservation {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String purpose;
+
+    @Column(nullable = false)
+    private Instant startTime;
+
+    @Column(nullable = false)
+    private Instant endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private String userId;
+
+    private String userName;
+
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    private Rol userRole;
+
+    @Column(nullable = false)
+    private String classroomId;
+
+    private String classroomName;
+
+    @Enumerated(EnumType.STRING)
+    private ClassroomType classroomType;
+
+    private String buildingName;
+
+    private String seriesId;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    public ReservationRow toRow() {
+        return new ReservationRow(id, purpose, startTime, endTime, status, createdAt,
+                userId, userName, userEmail, userRole,
+                classroomId, classroomName, classroomType, buildingName);
+    }
+}
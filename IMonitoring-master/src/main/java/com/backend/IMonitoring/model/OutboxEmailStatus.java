@@ -0,0 +1,7 @@
+package com.backend.IMonitoring.model;
+
+public enum OutboxEmailStatus {
+    PENDIENTE,
+    ENVIADO,
+    FALLIDO
+}
@@ -1,10 +1,13 @@
 package com.backend.IMonitoring.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -14,7 +17,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Keyset pagination seeks on (start_time, id), globally and per user
+        @Index(name = "idx_reservations_start_time_id", columnList = "start_time, id"),
+        @Index(name = "idx_reservations_user_start_time_id", columnList = "user_id, start_time, id"),
+        // Expiry job scans PENDIENTE rows by start time
+        @Index(name = "idx_reservations_status_start_time", columnList = "status, start_time")
+})
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -45,4 +54,11 @@ public class Reservation {
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ReservationSeries series;
 }
\ No newline at end of file
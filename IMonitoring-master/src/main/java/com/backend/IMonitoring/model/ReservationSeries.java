@@ -0,0 +1,68 @@
+package com.backend.IMonitoring.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reservation_series")
+public class ReservationSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "classroom_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Classroom classroom;
+
+    @Column(nullable = false)
+    private String purpose;
+
+    // Start and end of the first occurrence; later occurrences keep the same local time in timeZone.
+    @Column(nullable = false)
+    private Instant firstStartTime;
+
+    @Column(nullable = false)
+    private Instant firstEndTime;
+
+    @Column(nullable = false)
+    private String timeZone;
+
+    // Comma separated DayOfWeek names, e.g. "MONDAY,WEDNESDAY"
+    @Column(nullable = false)
+    private String daysOfWeek;
+
+    @Column(nullable = false)
+    private int intervalWeeks;
+
+    private LocalDate untilDate;
+
+    private Integer occurrenceCount;
+
+    // Comma separated ISO dates excluded from the series
+    @Column(length = 2000)
+    private String exceptionDates;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
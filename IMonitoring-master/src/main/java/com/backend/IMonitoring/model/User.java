@@ -41,9 +41,22 @@ public class User {
     @Builder.Default
     private boolean enabled = false; 
 
+    // Bumped when the role, email, password or enabled flag changes; access tokens carry it and older values are rejected
+    @Column(name = "token_version", nullable = false, columnDefinition = "bigint not null default 0")
+    @Builder.Default
+    private long tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @ToString.Exclude 
     @EqualsAndHashCode.Exclude
     @JsonManagedReference("user-reservations")
     private List<Reservation> reservations;
+
+    // Enabling or disabling the account invalidates every access token issued before the change
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            this.tokenVersion++;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.model.ArchivedReservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, String>, JpaSpecificationExecutor<ArchivedReservation> {
+
+    @Query("SELECT max(a.endTime) FROM ArchivedReservation a")
+    Instant findLatestEndTime();
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(a.id, a.classroomId, a.userId, a.startTime, a.endTime, a.status) " +
+           "FROM ArchivedReservation a WHERE a.status = :status")
+    List<ReservationSnapshot> findSnapshotsByStatus(@Param("status") ReservationStatus status);
+
+    // Same scope as the hot-table purges: run before the series rows they reference are deleted
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(a.id, a.classroomId, a.userId, a.startTime, a.endTime, a.status) " +
+           "FROM ArchivedReservation a WHERE a.classroomId = :classroomId OR " +
+           "a.seriesId IN (SELECT s.id FROM ReservationSeries s WHERE s.classroom.id = :classroomId)")
+    List<ReservationSnapshot> findSnapshotsForClassroomPurge(@Param("classroomId") String classroomId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedReservation a WHERE a.classroomId = :classroomId OR " +
+           "a.seriesId IN (SELECT s.id FROM ReservationSeries s WHERE s.classroom.id = :classroomId)")
+    int deleteForClassroomPurge(@Param("classroomId") String classroomId);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(a.id, a.classroomId, a.userId, a.startTime, a.endTime, a.status) " +
+           "FROM ArchivedReservation a WHERE a.userId = :userId OR " +
+           "a.seriesId IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    List<ReservationSnapshot> findSnapshotsForUserPurge(@Param("userId") String userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedReservation a WHERE a.userId = :userId OR " +
+           "a.seriesId IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    int deleteForUserPurge(@Param("userId") String userId);
+}
@@ -15,6 +15,9 @@ import java.util.List;
 @Repository
 public interface ClassroomRepository extends JpaRepository<Classroom, String>, JpaSpecificationExecutor<Classroom> {
 
+    @Query("SELECT c FROM Classroom c LEFT JOIN FETCH c.building ORDER BY c.name ASC")
+    List<Classroom> findAllWithBuildingOrderByName();
+
     List<Classroom> findByType(ClassroomType type, Sort sort);
     List<Classroom> findByCapacityGreaterThanEqual(Integer minCapacity, Sort sort);
 
@@ -30,6 +33,12 @@ public interface ClassroomRepository extends JpaRepository<Classroom, String>, J
            ":currentTime >= r.startTime AND :currentTime < r.endTime)")
     List<Classroom> findUnavailableNow(@Param("currentTime") Instant currentTime);
 
+    @Query("SELECT COUNT(c) FROM Classroom c WHERE EXISTS (" +
+           "SELECT r FROM Reservation r WHERE r.classroom = c AND " +
+           "r.status IN (com.backend.IMonitoring.model.ReservationStatus.PENDIENTE, com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA) AND " +
+           ":currentTime >= r.startTime AND :currentTime < r.endTime)")
+    long countUnavailableNow(@Param("currentTime") Instant currentTime);
+
     @Query("SELECT CASE WHEN COUNT(r) = 0 THEN TRUE ELSE FALSE END " +
            "FROM Reservation r WHERE r.classroom.id = :classroomId AND " +
            "r.status IN (com.backend.IMonitoring.model.ReservationStatus.PENDIENTE, com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA) AND " +
@@ -39,4 +48,6 @@ public interface ClassroomRepository extends JpaRepository<Classroom, String>, J
                                               @Param("endTime") Instant endTime);
 
     List<Classroom> findByBuilding_Id(String buildingId);
+
+    boolean existsByBuilding_Id(String buildingId);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.OutboxEmail;
+import com.backend.IMonitoring.model.OutboxEmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, String> {
+
+    @Query("SELECT e FROM OutboxEmail e WHERE e.status = com.backend.IMonitoring.model.OutboxEmailStatus.PENDIENTE " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<OutboxEmail> findDue(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<String> ids, @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = com.backend.IMonitoring.model.OutboxEmailStatus.ENVIADO, " +
+           "e.sentAt = :now, e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(@Param("id") String id, @Param("status") OutboxEmailStatus status, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError);
+
+    long countByStatus(OutboxEmailStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = com.backend.IMonitoring.model.OutboxEmailStatus.ENVIADO " +
+           "AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
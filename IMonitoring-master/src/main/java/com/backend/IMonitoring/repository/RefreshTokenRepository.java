@@ -0,0 +1,40 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Single statement check-and-mark: exactly one caller can use a token
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.familyId = :familyId AND " +
+           "t.usedAt IS NULL AND t.revokedAt IS NULL AND t.expiresAt > :now")
+    int markUsed(@Param("id") String id, @Param("familyId") String familyId, @Param("now") Instant now);
+
+    List<RefreshToken> findByFamilyId(String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Instant now);
+
+    @Query("SELECT t FROM RefreshToken t WHERE t.id > :after AND t.expiresAt > :now AND " +
+           "(t.usedAt IS NOT NULL OR t.revokedAt IS NOT NULL) ORDER BY t.id")
+    List<RefreshToken> findSpentAfter(@Param("after") String after, @Param("now") Instant now, Pageable pageable);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+}
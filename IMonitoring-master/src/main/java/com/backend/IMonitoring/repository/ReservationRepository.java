@@ -1,18 +1,25 @@
 package com.backend.IMonitoring.repository;
 
+import com.backend.IMonitoring.event.ReservationSnapshot;
 import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, String>, JpaSpecificationExecutor<Reservation> {
+public interface ReservationRepository extends JpaRepository<Reservation, String>, JpaSpecificationExecutor<Reservation>, ReservationRowRepository {
 
     List<Reservation> findByUserId(String userId, Sort sort);
 
@@ -34,4 +41,76 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
     List<Reservation> findByClassroomId(String classroomId, Sort sort);
 
     List<Reservation> findByClassroomIdAndStartTimeBetween(String classroomId, Instant startTime, Instant endTime, Sort sort);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE " +
+           "r.status IN (com.backend.IMonitoring.model.ReservationStatus.PENDIENTE, com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA)")
+    List<ReservationSnapshot> findActiveSnapshots();
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.classroom.id IN :classroomIds AND " +
+           "r.status IN (com.backend.IMonitoring.model.ReservationStatus.PENDIENTE, com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA) AND " +
+           "r.startTime < :endTime AND r.endTime > :startTime")
+    List<ReservationSnapshot> findActiveSnapshotsInRange(@Param("classroomIds") Collection<String> classroomIds,
+                                                         @Param("startTime") Instant startTime,
+                                                         @Param("endTime") Instant endTime);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.status = :status")
+    List<ReservationSnapshot> findSnapshotsByStatus(@Param("status") ReservationStatus status);
+
+    List<Reservation> findBySeriesId(String seriesId, Sort sort);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.series.id = :seriesId AND r.startTime >= :from AND " +
+           "r.status IN (com.backend.IMonitoring.model.ReservationStatus.PENDIENTE, com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA)")
+    List<ReservationSnapshot> findActiveSnapshotsBySeriesFrom(@Param("seriesId") String seriesId, @Param("from") Instant from);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.status = com.backend.IMonitoring.model.ReservationStatus.PENDIENTE AND r.startTime < :before")
+    List<ReservationSnapshot> findPendingSnapshotsStartingBefore(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :status WHERE r.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<String> ids, @Param("status") ReservationStatus status);
+
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+
+    // Reservations of a classroom or user plus any reservation of a series anchored there, so the series can go next.
+    // The lock* variants take row locks first: the archiver skips locked rows, so none moves between snapshot and delete
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Reservation r WHERE r.classroom.id = :classroomId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.classroom.id = :classroomId)")
+    List<String> lockForClassroomPurge(@Param("classroomId") String classroomId);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.classroom.id = :classroomId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.classroom.id = :classroomId)")
+    List<ReservationSnapshot> findSnapshotsForClassroomPurge(@Param("classroomId") String classroomId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Reservation r WHERE r.classroom.id = :classroomId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.classroom.id = :classroomId)")
+    int deleteForClassroomPurge(@Param("classroomId") String classroomId);
+
+    @Query("SELECT DISTINCT r.classroom.id FROM Reservation r WHERE r.user.id = :userId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    List<String> findClassroomIdsForUserPurge(@Param("userId") String userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Reservation r WHERE r.user.id = :userId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    List<String> lockForUserPurge(@Param("userId") String userId);
+
+    @Query("SELECT new com.backend.IMonitoring.event.ReservationSnapshot(r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status) " +
+           "FROM Reservation r WHERE r.user.id = :userId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    List<ReservationSnapshot> findSnapshotsForUserPurge(@Param("userId") String userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Reservation r WHERE r.user.id = :userId OR " +
+           "r.series.id IN (SELECT s.id FROM ReservationSeries s WHERE s.user.id = :userId)")
+    int deleteForUserPurge(@Param("userId") String userId);
+}
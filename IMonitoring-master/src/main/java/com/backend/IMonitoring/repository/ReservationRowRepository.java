@@ -0,0 +1,27 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.model.Reservation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read path for reservation listings that selects {@link ReservationRow} columns with explicit joins instead of
+ * hydrating Reservation, User, Classroom and Building entities.
+ */
+public interface ReservationRowRepository {
+
+    Page<ReservationRow> findRows(Specification<Reservation> spec, Pageable pageable);
+
+    List<ReservationRow> findRows(Specification<Reservation> spec, Sort sort, int limit);
+
+    /**
+     * Forward-only cursor over the rows; the caller must close the stream inside the surrounding transaction.
+     */
+    Stream<ReservationRow> streamRows(Specification<Reservation> spec, Sort sort, int fetchSize);
+}
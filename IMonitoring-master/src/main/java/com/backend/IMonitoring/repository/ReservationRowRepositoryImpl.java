@@ -0,0 +1,110 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class ReservationRowRepositoryImpl implements ReservationRowRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ReservationRow> findRows(Specification<Reservation> spec, Pageable pageable) {
+        TypedQuery<ReservationRow> query = rowQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // The count only runs when the page is full or not the first one
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ReservationRow> findRows(Specification<Reservation> spec, Sort sort, int limit) {
+        return rowQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<ReservationRow> streamRows(Specification<Reservation> spec, Sort sort, int fetchSize) {
+        return rowQuery(spec, sort).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+
+    private TypedQuery<ReservationRow> rowQuery(Specification<Reservation> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationRow> query = cb.createQuery(ReservationRow.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        Join<Reservation, User> user = root.join("user");
+        Join<Reservation, Classroom> classroom = root.join("classroom");
+        Join<Classroom, Building> building = classroom.join("building", JoinType.LEFT);
+
+        query.select(cb.construct(ReservationRow.class,
+                root.get("id"), root.get("purpose"), root.get("startTime"), root.get("endTime"),
+                root.get("status"), root.get("createdAt"),
+                user.get("id"), user.get("name"), user.get("email"), user.get("role"),
+                classroom.get("id"), classroom.get("name"), classroom.get("type"),
+                building.get("name")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = sortPath(order.getProperty(), root, user, classroom, building);
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+        return entityManager.createQuery(query);
+    }
+
+    // Nested sort properties reuse the explicit joins so ordering never adds an implicit one
+    private static Path<?> sortPath(String property, Root<Reservation> root, Join<Reservation, User> user,
+                                    Join<Reservation, Classroom> classroom, Join<Classroom, Building> building) {
+        int dot = property.indexOf('.');
+        if (dot < 0) {
+            return root.get(property);
+        }
+        String attribute = property.substring(dot + 1);
+        return switch (property.substring(0, dot)) {
+            case "user" -> user.get(attribute);
+            case "classroom" -> attribute.startsWith("building.") ? building.get(attribute.substring("building.".length())) : classroom.get(attribute);
+            default -> root.get(property.substring(0, dot)).get(attribute);
+        };
+    }
+
+    private long count(Specification<Reservation> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,20 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.ReservationSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationSeriesRepository extends JpaRepository<ReservationSeries, String> {
+
+    @Modifying
+    @Query("DELETE FROM ReservationSeries s WHERE s.classroom.id = :classroomId")
+    int deleteByClassroomId(@Param("classroomId") String classroomId);
+
+    @Modifying
+    @Query("DELETE FROM ReservationSeries s WHERE s.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+}
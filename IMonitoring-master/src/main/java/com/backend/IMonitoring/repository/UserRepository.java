@@ -1,9 +1,14 @@
 package com.backend.IMonitoring.repository;
 
+import com.backend.IMonitoring.dto.UserTokenVersion;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +19,13 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(Rol role); 
     List<User> findByRole(Rol role, Sort sort); 
-}
\ No newline at end of file
+
+    @Query("SELECT new com.backend.IMonitoring.dto.UserTokenVersion(u.id, u.tokenVersion) FROM User u " +
+           "WHERE u.id > :after ORDER BY u.id")
+    List<UserTokenVersion> findTokenVersionsAfter(@Param("after") String after, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") String id, @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+}
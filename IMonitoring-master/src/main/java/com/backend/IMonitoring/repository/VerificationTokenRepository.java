@@ -2,9 +2,16 @@ package com.backend.IMonitoring.repository;
 
 import com.backend.IMonitoring.model.VerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, String> {
     Optional<VerificationToken> findByToken(String token);
     Optional<VerificationToken> findByUser_IdAndVerifiedFalse(String userId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM VerificationToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+}
@@ -0,0 +1,160 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.exceptions.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password verification of the delegate encoder on a fixed pool sized to the CPU budget for password work, behind
+ * a bounded queue. When the queue is full, or a caller waited longer than {@code timeoutMillis}, {@link #matches} fails
+ * fast with {@link LoginThrottledException} instead of piling more BCrypt work onto the request threads.
+ * <p>
+ * {@link #encode} runs on the same threads, so every BCrypt hash counts against one CPU budget, but it is not admission
+ * controlled: it serves registration, user management, password changes and login rehashes, which must not fail with
+ * a login error. When the queue is full it waits for room instead, and then for its hash without a timeout.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Encodes that find the queue full are put on it directly, which needs the workers to exist already
+        this.executor.prestartAllCoreThreads();
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time password hashing requests wait for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Password hashing requests refused because the queue was full or the wait timed out")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently computing a hash")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long queuedAt = System.nanoTime();
+        FutureTask<String> task = new FutureTask<>(() -> {
+            waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return encodeTimer.recordCallable(() -> delegate.encode(rawPassword));
+        });
+        try {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw new IllegalStateException("Password hashing pool is shut down", e);
+                }
+                executor.getQueue().put(task);
+                // A shutdown racing the put would leave the task queued with no worker to run it
+                if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                    throw new IllegalStateException("Password hashing pool is shut down", e);
+                }
+            }
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw throttled();
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw throttled();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw throttled();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private LoginThrottledException throttled() {
+        rejectedCounter.increment();
+        return new LoginThrottledException(
+                "El servidor está procesando demasiados inicios de sesión. Inténtalo de nuevo en unos segundos.",
+                retryAfterSeconds);
+    }
+}
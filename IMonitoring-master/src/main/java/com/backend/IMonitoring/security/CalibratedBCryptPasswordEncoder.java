@@ -0,0 +1,83 @@
+package com.backend.IMonitoring.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost is either configured or calibrated at startup: the highest cost between {@code minCost}
+ * and {@code maxCost} whose single hash stays within the latency target on this machine. Stored hashes of a lower cost
+ * report {@link #upgradeEncoding(String)}, so they are rewritten on the next successful login. Stronger hashes are kept
+ * unless {@code allowDowngrade} is set, so a slow calibration run cannot weaken stored passwords.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private final int cost;
+    private final boolean allowDowngrade;
+
+    public CalibratedBCryptPasswordEncoder(int cost) {
+        this(cost, false);
+    }
+
+    public CalibratedBCryptPasswordEncoder(int cost, boolean allowDowngrade) {
+        super(cost);
+        this.cost = cost;
+        this.allowDowngrade = allowDowngrade;
+    }
+
+    public static CalibratedBCryptPasswordEncoder calibrated(long targetMillis, int minCost, int maxCost,
+                                                             boolean allowDowngrade) {
+        int chosen = minCost;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            double millis = measure(candidate);
+            logger.info("BCrypt cost {}: {} ms per hash, about {} logins/s per core.",
+                    candidate, String.format("%.1f", millis), String.format("%.1f", 1000.0 / millis));
+            if (millis > targetMillis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        logger.info("BCrypt cost {} selected for a target of {} ms per hash.", chosen, targetMillis);
+        return new CalibratedBCryptPasswordEncoder(chosen, allowDowngrade);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = storedCost(encodedPassword);
+        return stored > 0 && (stored < cost || (allowDowngrade && stored > cost));
+    }
+
+    // Best of three runs after a warm-up hash, so JIT and cold caches do not skew the choice
+    private static double measure(int candidate) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(candidate);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+
+    // Modular crypt format: $2a$10$<salt+hash>
+    private static int storedCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
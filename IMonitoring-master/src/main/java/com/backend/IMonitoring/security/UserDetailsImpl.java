@@ -2,6 +2,7 @@ package com.backend.IMonitoring.security;
 
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol; 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +17,25 @@ public class UserDetailsImpl implements UserDetails {
         this.user = user;
     }
 
+    /**
+     * Principal rebuilt from verified access token claims, without a database read. The user is detached and carries
+     * no password or reservations. Services may use it for ids, role checks and as the target of a many-to-one
+     * association (none of which cascade to the user), but must load the row by id before modifying or saving it.
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        Number version = claims.get("ver", Number.class);
+        User user = User.builder()
+                .id(claims.get("userId", String.class))
+                .email(claims.getSubject())
+                .name(claims.get("name", String.class))
+                .role(Rol.valueOf(claims.get("role", String.class)))
+                .avatarUrl(claims.get("avatarUrl", String.class))
+                .enabled(Boolean.TRUE.equals(claims.get("enabled", Boolean.class)))
+                .tokenVersion(version != null ? version.longValue() : 0)
+                .build();
+        return new UserDetailsImpl(user);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         if (user.getRole() == null) {
@@ -46,6 +66,10 @@ public class UserDetailsImpl implements UserDetails {
         return this.user.isEnabled(); 
     }
 
+    /**
+     * The authenticated user: managed when loaded by {@code UserDetailsServiceImpl}, detached and password-less when
+     * built by {@link #fromClaims(Claims)}.
+     */
     public User getUserEntity() {
         return this.user;
     }
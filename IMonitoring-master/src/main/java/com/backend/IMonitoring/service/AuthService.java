@@ -3,7 +3,9 @@ package com.backend.IMonitoring.service;
 import com.backend.IMonitoring.dto.AuthRequest;
 import com.backend.IMonitoring.dto.AuthResponse;
 import com.backend.IMonitoring.dto.RegisterRequest;
+import com.backend.IMonitoring.event.UserChangedEvent;
 import com.backend.IMonitoring.exceptions.InvalidCredentialsException;
+import com.backend.IMonitoring.exceptions.LoginThrottledException;
 import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import com.backend.IMonitoring.exceptions.UserAlreadyExistsException;
 import com.backend.IMonitoring.model.Rol;
@@ -11,13 +13,16 @@ import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.VerificationToken;
 import com.backend.IMonitoring.repository.UserRepository;
 import com.backend.IMonitoring.repository.VerificationTokenRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -29,9 +34,12 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshTokenStore refreshTokenStore;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final VerificationTokenRepository verificationTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -60,14 +68,14 @@ public class AuthService {
         emailService.sendVerificationEmail(user.getEmail(), token);
 
         String jwtToken = jwtService.generateToken(user); 
-        String refreshToken = jwtService.generateRefreshToken(user);
+        String refreshToken = refreshTokenStore.issue(user);
         return AuthResponse.builder()
                 .token(jwtToken)
                 .refreshToken(refreshToken)
                 .build();
     }
 
-    @Transactional
+    // Not transactional: a login waiting for a hashing thread must not hold a database connection meanwhile
     public AuthResponse authenticate(AuthRequest request) {
         try {
             authenticationManager.authenticate(
@@ -77,6 +85,10 @@ public class AuthService {
                     )
             );
         } catch (AuthenticationException e) {
+            // The timing-attack check for unknown users hashes too, and the provider wraps its failures
+            if (e.getCause() instanceof LoginThrottledException throttled) {
+                throw throttled;
+            }
             throw new InvalidCredentialsException("Correo electrónico o contraseña incorrectos.");
         }
 
@@ -87,8 +99,16 @@ public class AuthService {
             throw new InvalidCredentialsException("Tu cuenta no ha sido verificada. Por favor, verifica tu correo electrónico.");
         }
 
+        // Rewrites hashes made with another BCrypt cost while the plain password is at hand; the token version is kept.
+        // Only if the stored hash is still the one just verified, so a concurrent password change wins
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String rehashed = passwordEncoder.encode(request.getPassword());
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), rehashed));
+        }
+
         String jwtToken = jwtService.generateToken(user); 
-        String refreshToken = jwtService.generateRefreshToken(user); 
+        String refreshToken = refreshTokenStore.issue(user); 
         return AuthResponse.builder()
                 .token(jwtToken)
                 .refreshToken(refreshToken)
@@ -107,8 +127,9 @@ public class AuthService {
 
         User user = verificationToken.getUser();
         user.setEnabled(true);
-        userRepository.save(user);
+        User savedUser = userRepository.save(user);
         verificationTokenRepository.delete(verificationToken);
+        eventPublisher.publishEvent(UserChangedEvent.updated(savedUser.getId(), savedUser.getTokenVersion()));
     }
 
     @Transactional
@@ -123,16 +144,25 @@ public class AuthService {
 
     @Transactional
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtService.isTokenValid(refreshToken)) {
+        Claims claims = jwtService.parseValid(refreshToken);
+        String familyId = claims != null ? claims.get("fam", String.class) : null;
+        if (claims == null || claims.getId() == null || familyId == null) {
             throw new InvalidCredentialsException("Refresh token inválido o expirado.");
         }
-
-        String userEmail = jwtService.extractUsername(refreshToken);
-        User user = userRepository.findByEmail(userEmail)
+        User user = userRepository.findByEmail(claims.getSubject())
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado para el refresh token."));
 
+        // Role, email, password or enabled changes bump the version and end every session of the user. Checked before
+        // consume: its UPDATE would lock the token row, and the revocation below commits in its own transaction
+        Number version = claims.get("ver", Number.class);
+        if (version == null || version.longValue() != user.getTokenVersion()) {
+            refreshTokenStore.revokeFamily(familyId);
+            throw new InvalidCredentialsException("La sesión ya no es válida. Inicia sesión de nuevo.");
+        }
+        refreshTokenStore.consume(claims.getId(), familyId);
+
         String newAccessToken = jwtService.generateToken(user);
-        String newRefreshToken = jwtService.generateRefreshToken(user);
+        String newRefreshToken = refreshTokenStore.issue(user, familyId);
 
         return AuthResponse.builder()
                 .token(newAccessToken)
@@ -0,0 +1,72 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ClassroomAvailabilitySummaryDTO;
+import com.backend.IMonitoring.event.ClassroomChangedEvent;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Holds the last availability summary until the next reservation start or end (taken from the availability index),
+ * the configured TTL, or a reservation/classroom change, whichever comes first. Concurrent misses compute it once.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilitySummaryCache {
+
+    private final ReservationAvailabilityIndex availabilityIndex;
+
+    @Value("${app.availability.summary.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private record Entry(ClassroomAvailabilitySummaryDTO summary, long validUntil, long generation) {
+    }
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry entry;
+
+    public ClassroomAvailabilitySummaryDTO get(Function<Instant, ClassroomAvailabilitySummaryDTO> compute) {
+        Entry current = entry;
+        if (isFresh(current, System.currentTimeMillis())) {
+            return current.summary();
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            current = entry;
+            if (isFresh(current, now)) {
+                return current.summary();
+            }
+            // Read before computing: a change that lands during the computation leaves the entry already stale
+            long computedAt = generation.get();
+            Instant at = Instant.ofEpochMilli(now);
+            ClassroomAvailabilitySummaryDTO summary = compute.apply(at);
+            long validUntil = now + Duration.ofSeconds(ttlSeconds).toMillis();
+            if (availabilityIndex.isReady()) {
+                validUntil = Math.min(validUntil, availabilityIndex.nextBoundaryAfter(at));
+            }
+            entry = new Entry(summary, validUntil, computedAt);
+            return summary;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private boolean isFresh(Entry current, long now) {
+        return current != null && current.generation() == generation.get() && now < current.validUntil();
+    }
+}
@@ -1,12 +1,14 @@
 package com.backend.IMonitoring.service;
 
 import com.backend.IMonitoring.dto.BuildingRequestDTO;
+import com.backend.IMonitoring.event.BuildingChangedEvent;
 import com.backend.IMonitoring.model.Building;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.repository.BuildingRepository;
 import com.backend.IMonitoring.repository.ClassroomRepository;
 import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort; 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,7 @@ public class BuildingService {
 
     private final BuildingRepository buildingRepository;
     private final ClassroomRepository classroomRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Building> getAllBuildings() {
@@ -36,7 +39,9 @@ public class BuildingService {
         Building building = new Building();
         building.setName(buildingRequestDTO.getName());
         building.setLocation(buildingRequestDTO.getLocation());
-        return buildingRepository.save(building);
+        Building savedBuilding = buildingRepository.save(building);
+        eventPublisher.publishEvent(BuildingChangedEvent.created(savedBuilding.getId()));
+        return savedBuilding;
     }
 
     @Transactional
@@ -46,17 +51,19 @@ public class BuildingService {
         if (buildingRequestDTO.getLocation() != null) {
              building.setLocation(buildingRequestDTO.getLocation());
         }
-        return buildingRepository.save(building);
+        Building updatedBuilding = buildingRepository.save(building);
+        eventPublisher.publishEvent(BuildingChangedEvent.updated(updatedBuilding.getId()));
+        return updatedBuilding;
     }
 
     @Transactional
     public void deleteBuilding(String id) {
         Building building = getBuildingById(id);
-        List<Classroom> classroomsInBuilding = classroomRepository.findByBuilding_Id(id); 
-        if (classroomsInBuilding != null && !classroomsInBuilding.isEmpty()) {
+        if (classroomRepository.existsByBuilding_Id(id)) {
             throw new IllegalStateException("No se puede eliminar el edificio porque tiene aulas asociadas. Elimine o reasigne las aulas primero.");
         }
-        buildingRepository.delete(building);
+        buildingRepository.deleteAllByIdInBatch(List.of(building.getId()));
+        eventPublisher.publishEvent(BuildingChangedEvent.deleted(id));
     }
 
     @Transactional(readOnly = true)
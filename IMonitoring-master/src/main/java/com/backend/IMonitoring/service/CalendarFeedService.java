@@ -0,0 +1,198 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.event.BuildingChangedEvent;
+import com.backend.IMonitoring.event.ClassroomChangedEvent;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.utils.ICalendarWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * iCalendar feeds of a classroom's or a user's active reservations from {@code past-days} ago to {@code future-days}
+ * ahead. Every subject carries a version stamp bumped after commit by the reservation events that touch it (classroom
+ * and building changes bump all feeds), and the ETag is derived from that stamp, the window's first day and the boot
+ * time. A poll for an unchanged feed is therefore answered from a map lookup; a changed feed is re-rendered once from a
+ * single row query and kept in a bounded cache until its stamp moves again.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarFeedService {
+
+    private final ReservationRepository reservationRepository;
+    private final ClassroomService classroomService;
+
+    @Value("${app.calendar.past-days:30}")
+    private int pastDays;
+
+    @Value("${app.calendar.future-days:180}")
+    private int futureDays;
+
+    @Value("${app.calendar.max-events:2000}")
+    private int maxEvents;
+
+    @Value("${app.calendar.cache-size:1000}")
+    private int cacheSize;
+
+    @Value("${app.time-zone:}")
+    private String timeZone;
+
+    public record Stamp(long version, long lastModified) {
+    }
+
+    public record Feed(String etag, long lastModified, byte[] body) {
+    }
+
+    private record CachedFeed(String etag, Feed feed) {
+    }
+
+    private static final long BOOT_ID = System.currentTimeMillis();
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, Stamp> stamps = new ConcurrentHashMap<>();
+    private volatile Stamp globalStamp = new Stamp(0, BOOT_ID);
+    private Map<String, CachedFeed> cache;
+
+    @PostConstruct
+    public void init() {
+        int capacity = Math.max(1, cacheSize);
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFeed> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        for (ReservationSnapshot snapshot : new ReservationSnapshot[]{event.before(), event.after()}) {
+            if (snapshot != null) {
+                bump(classroomKey(snapshot.classroomId()));
+                bump(userKey(snapshot.userId()));
+            }
+        }
+    }
+
+    // Names of classrooms and buildings appear in every feed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        globalStamp = new Stamp(versions.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        globalStamp = new Stamp(versions.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    /**
+     * ETag and Last-Modified of the classroom feed as of now, computed without reading reservations.
+     */
+    public Stamp classroomStamp(String classroomId) {
+        return stamp(classroomKey(classroomId));
+    }
+
+    public Stamp userStamp(String userId) {
+        return stamp(userKey(userId));
+    }
+
+    public String etag(Stamp stamp) {
+        return "\"" + Long.toString(BOOT_ID, 36) + "-" + stamp.version() + "-" + windowStart().toEpochDay() + "\"";
+    }
+
+    // The window moves daily, so a feed is never older than the start of today
+    public long lastModified(Stamp stamp) {
+        return Math.max(stamp.lastModified(), LocalDate.now(zone()).atStartOfDay(zone()).toInstant().toEpochMilli());
+    }
+
+    @Transactional(readOnly = true)
+    public Feed classroomFeed(String classroomId) {
+        ClassroomDTO classroom = classroomService.getAllClassroomsDTO().stream()
+                .filter(c -> c.getId().equals(classroomId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Aula no encontrada con ID: " + classroomId));
+        String name = classroom.getBuildingName() != null ? classroom.getName() + " (" + classroom.getBuildingName() + ")" : classroom.getName();
+        return feed(classroomKey(classroomId), name, false,
+                (root, query, cb) -> cb.equal(root.get("classroom").get("id"), classroomId));
+    }
+
+    @Transactional(readOnly = true)
+    public Feed userFeed(User user) {
+        return feed(userKey(user.getId()), "Reservas de " + user.getName(), true,
+                (root, query, cb) -> cb.equal(root.get("user").get("id"), user.getId()));
+    }
+
+    private Feed feed(String key, String calendarName, boolean classroomInSummary, Specification<Reservation> subject) {
+        // The stamp is read before the query: a change committed meanwhile bumps it and the next poll re-renders
+        Stamp stamp = stamp(key);
+        String etag = etag(stamp);
+        CachedFeed cached = cache.get(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached.feed();
+        }
+        LocalDate windowStart = windowStart();
+        ZoneId zone = zone();
+        Instant from = windowStart.atStartOfDay(zone).toInstant();
+        Instant to = windowStart.plusDays(pastDays + futureDays + 1L).atStartOfDay(zone).toInstant();
+        Specification<Reservation> spec = subject
+                .and((root, query, cb) -> root.get("status").in(ReservationStatus.PENDIENTE, ReservationStatus.CONFIRMADA))
+                .and((root, query, cb) -> cb.greaterThan(root.get("endTime"), from))
+                .and((root, query, cb) -> cb.lessThan(root.get("startTime"), to));
+        List<ReservationRow> rows = reservationRepository.findRows(spec, Sort.by(Sort.Direction.ASC, "startTime", "id"), maxEvents);
+        Feed feed = new Feed(etag, lastModified(stamp), ICalendarWriter.render(calendarName, rows, classroomInSummary));
+        cache.put(key, new CachedFeed(etag, feed));
+        return feed;
+    }
+
+    private Stamp stamp(String key) {
+        Stamp own = stamps.get(key);
+        Stamp global = globalStamp;
+        if (own == null || own.version() < global.version()) {
+            return global;
+        }
+        return own;
+    }
+
+    private void bump(String key) {
+        stamps.put(key, new Stamp(versions.incrementAndGet(), System.currentTimeMillis()));
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now(zone()).minusDays(pastDays);
+    }
+
+    private ZoneId zone() {
+        return timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    private static String classroomKey(String classroomId) {
+        return "classroom:" + classroomId;
+    }
+
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+}
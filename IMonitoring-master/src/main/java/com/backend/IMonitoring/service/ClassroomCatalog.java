@@ -0,0 +1,79 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.event.BuildingChangedEvent;
+import com.backend.IMonitoring.event.ClassroomChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned snapshot of the classroom catalog: the DTO list, its JSON bytes and a strong ETag derived from them.
+ * Classroom and building changes only bump the version; the next read rebuilds once, so steady-state polling
+ * costs neither SQL nor serialization.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClassroomCatalog {
+
+    private final ObjectMapper objectMapper;
+
+    public record Snapshot(List<ClassroomDTO> classrooms, byte[] json, String etag, long version) {
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public Snapshot get(Supplier<List<ClassroomDTO>> loader) {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long expected = version.get();
+            if (current != null && current.version() == expected) {
+                return current;
+            }
+            List<ClassroomDTO> classrooms = List.copyOf(loader.get());
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(classrooms);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize the classroom catalog", e);
+            }
+            current = new Snapshot(classrooms, json, etagOf(json), expected);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    // Content-derived, so the tag is stable across restarts and instances serving the same catalog
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
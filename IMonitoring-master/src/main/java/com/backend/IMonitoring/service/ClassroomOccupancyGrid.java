@@ -0,0 +1,190 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.utils.IntervalTree;
+import com.backend.IMonitoring.utils.SlotBitmap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-classroom occupancy bitmaps over a rolling horizon, one bit per slot of {@code app.availability.grid.slot-minutes}.
+ * Rows are derived lazily from {@link ReservationAvailabilityIndex} and rebuilt only when the classroom's index stamp
+ * changes. A slot is marked busy when any active reservation touches it, so a clear range is definitely free while a
+ * busy bit is refined against the index when an exact answer is needed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClassroomOccupancyGrid {
+
+    private final ReservationAvailabilityIndex availabilityIndex;
+
+    @Value("${app.availability.grid.slot-minutes:5}")
+    private int slotMinutes;
+
+    @Value("${app.availability.grid.horizon-days:14}")
+    private int horizonDays;
+
+    @Value("${app.availability.grid.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    private record Window(long origin, long slotMillis, int slots) {
+        long end() {
+            return origin + slotMillis * slots;
+        }
+    }
+
+    private record Row(long origin, long stamp, long[] bits) {
+    }
+
+    private volatile Window window;
+    private final Map<String, Row> rows = new ConcurrentHashMap<>();
+
+    public boolean isReady() {
+        return availabilityIndex.isReady();
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Whether [from, to) lies within the horizon currently covered by the grid.
+     */
+    public boolean covers(Instant from, Instant to) {
+        return covers(currentWindow(), from, to);
+    }
+
+    /**
+     * Classrooms among {@code classroomIds} with no active reservation overlapping [from, to). Ranges reaching outside
+     * the horizon are answered by the interval index alone, since slot indexes would be clamped to the covered part.
+     */
+    public Set<String> freeClassrooms(Collection<String> classroomIds, Instant from, Instant to) {
+        Window current = currentWindow();
+        if (!covers(current, from, to)) {
+            Set<String> free = new LinkedHashSet<>();
+            for (String classroomId : classroomIds) {
+                if (!availabilityIndex.hasConflict(classroomId, from, to, null)) {
+                    free.add(classroomId);
+                }
+            }
+            return free;
+        }
+        int fromSlot = floorSlot(current, from.toEpochMilli());
+        int toSlot = ceilSlot(current, to.toEpochMilli());
+        Set<String> free = new LinkedHashSet<>();
+        for (String classroomId : classroomIds) {
+            long[] bits = row(current, classroomId);
+            if (!SlotBitmap.any(bits, fromSlot, toSlot) || !availabilityIndex.hasConflict(classroomId, from, to, null)) {
+                free.add(classroomId);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Whether {@code classroomId} has no active reservation overlapping [from, to). A clear bitmap answers without
+     * touching the interval tree; only ranges with a busy slot are refined against it.
+     */
+    public boolean isFree(String classroomId, Instant from, Instant to) {
+        return !freeClassrooms(List.of(classroomId), from, to).isEmpty();
+    }
+
+    /**
+     * Busy bitmap of each classroom over the slots covering [from, to), rendered as '1'/'0' strings. The range must
+     * lie within the horizon, see {@link #covers(Instant, Instant)}.
+     */
+    public Map<String, String> busyBitmaps(Collection<String> classroomIds, Instant from, Instant to) {
+        Window current = currentWindow();
+        if (!covers(current, from, to)) {
+            throw new IllegalArgumentException("El rango solicitado está fuera del horizonte de ocupación disponible.");
+        }
+        int fromSlot = floorSlot(current, from.toEpochMilli());
+        int toSlot = ceilSlot(current, to.toEpochMilli());
+        Map<String, String> bitmaps = new LinkedHashMap<>();
+        for (String classroomId : classroomIds) {
+            bitmaps.put(classroomId, SlotBitmap.toString(row(current, classroomId), fromSlot, toSlot));
+        }
+        return bitmaps;
+    }
+
+    /**
+     * Start of the slot containing {@code instant}.
+     */
+    public Instant alignDown(Instant instant) {
+        Window current = currentWindow();
+        return Instant.ofEpochMilli(current.origin() + floorSlot(current, instant.toEpochMilli()) * current.slotMillis());
+    }
+
+    /**
+     * End of the slot containing the last millisecond before {@code instant}.
+     */
+    public Instant alignUp(Instant instant) {
+        Window current = currentWindow();
+        return Instant.ofEpochMilli(current.origin() + ceilSlot(current, instant.toEpochMilli()) * current.slotMillis());
+    }
+
+    private long[] row(Window current, String classroomId) {
+        long stamp = availabilityIndex.stamp(classroomId);
+        Row row = rows.get(classroomId);
+        if (row != null && row.origin() == current.origin() && row.stamp() == stamp) {
+            return row.bits();
+        }
+        long[] bits = SlotBitmap.create(current.slots());
+        for (IntervalTree.Interval interval : availabilityIndex.intervals(
+                classroomId, Instant.ofEpochMilli(current.origin()), Instant.ofEpochMilli(current.end()))) {
+            SlotBitmap.set(bits, floorSlot(current, interval.start()), ceilSlot(current, interval.end()));
+        }
+        // A concurrent change may bump the stamp while we scan; storing the stamp read beforehand makes the next read rebuild.
+        rows.put(classroomId, new Row(current.origin(), stamp, bits));
+        return bits;
+    }
+
+    private Window currentWindow() {
+        long now = System.currentTimeMillis();
+        Window current = window;
+        if (current == null || now >= current.origin() + Duration.ofDays(1).toMillis()) {
+            synchronized (this) {
+                current = window;
+                if (current == null || now >= current.origin() + Duration.ofDays(1).toMillis()) {
+                    long origin = Instant.ofEpochMilli(now).truncatedTo(ChronoUnit.DAYS).toEpochMilli();
+                    long slotMillis = Duration.ofMinutes(slotMinutes).toMillis();
+                    int slots = (int) (Duration.ofDays(horizonDays).toMillis() / slotMillis);
+                    current = new Window(origin, slotMillis, slots);
+                    window = current;
+                    rows.clear();
+                }
+            }
+        }
+        return current;
+    }
+
+    private static boolean covers(Window window, Instant from, Instant to) {
+        return from.toEpochMilli() >= window.origin() && to.toEpochMilli() <= window.end();
+    }
+
+    // Clamped to the window; callers check covers() first so a clamped range never stands in for the requested one
+    private static int floorSlot(Window window, long instant) {
+        long slot = Math.floorDiv(instant - window.origin(), window.slotMillis());
+        return (int) Math.max(0, Math.min(window.slots(), slot));
+    }
+
+    private static int ceilSlot(Window window, long instant) {
+        long slot = Math.floorDiv(instant - window.origin() + window.slotMillis() - 1, window.slotMillis());
+        return (int) Math.max(0, Math.min(window.slots(), slot));
+    }
+}
@@ -3,7 +3,11 @@ package com.backend.IMonitoring.service;
 import com.backend.IMonitoring.dto.ClassroomAvailabilitySummaryDTO;
 import com.backend.IMonitoring.dto.AvailabilityRequest;
 import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ClassroomOccupancyDTO;
 import com.backend.IMonitoring.dto.ClassroomRequestDTO;
+import com.backend.IMonitoring.event.ClassroomChangedEvent;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.model.ClassroomType;
 import com.backend.IMonitoring.model.Building;
@@ -11,8 +15,12 @@ import com.backend.IMonitoring.model.Reservation;
 import com.backend.IMonitoring.repository.ClassroomRepository;
 import com.backend.IMonitoring.repository.BuildingRepository;
 import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.exceptions.OccupancyUnavailableException;
 import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +30,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -30,13 +40,24 @@ public class ClassroomService {
     private final ClassroomRepository classroomRepository;
     private final BuildingRepository buildingRepository;
     private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ReservationSeriesRepository reservationSeriesRepository;
+    private final ClassroomWriteLocks classroomWriteLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final ClassroomOccupancyGrid occupancyGrid;
+    private final OccupancyTimeline occupancyTimeline;
+    private final AvailabilitySummaryCache availabilitySummaryCache;
+    private final ClassroomCatalog classroomCatalog;
 
-    @Transactional(readOnly = true)
     public List<ClassroomDTO> getAllClassroomsDTO() {
-        List<Classroom> classrooms = classroomRepository.findAll(Sort.by(Sort.Direction.ASC, "name"));
-        return classrooms.stream()
+        return getClassroomCatalog().classrooms();
+    }
+
+    public ClassroomCatalog.Snapshot getClassroomCatalog() {
+        return classroomCatalog.get(() -> classroomRepository.findAllWithBuildingOrderByName().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     private ClassroomDTO convertToDTO(Classroom classroom) {
@@ -92,6 +113,7 @@ public class ClassroomService {
                 .building(building)
                 .build();
         Classroom savedClassroom = classroomRepository.save(classroom);
+        eventPublisher.publishEvent(ClassroomChangedEvent.created(savedClassroom.getId()));
         return convertToDTO(savedClassroom);
     }
 
@@ -113,19 +135,31 @@ public class ClassroomService {
 
         classroomToUpdate.setBuilding(building);
         Classroom updatedClassroom = classroomRepository.save(classroomToUpdate);
+        eventPublisher.publishEvent(ClassroomChangedEvent.updated(updatedClassroom.getId()));
         return convertToDTO(updatedClassroom);
     }
 
+    /**
+     * Deletes the classroom with set-based statements in foreign key order (reservations, archived reservations, series,
+     * classroom) instead of loading and removing every reservation entity. Deleted events are published from projected snapshots.
+     */
     @Transactional
     public void deleteClassroom(String id) {
         if (!classroomRepository.existsById(id)) {
             throw new ResourceNotFoundException("Aula no encontrada con ID: " + id + " para eliminar.");
         }
-        List<Reservation> reservationsInClassroom = reservationRepository.findByClassroomId(id, Sort.unsorted());
-        if (reservationsInClassroom != null && !reservationsInClassroom.isEmpty()) {
-            reservationRepository.deleteAll(reservationsInClassroom);
-        }
-        classroomRepository.deleteById(id);
+        // Keeps new bookings for this room out until the purge commits
+        classroomWriteLocks.lockUntilCompletion(id);
+        reservationRepository.lockForClassroomPurge(id);
+        List<ReservationSnapshot> purged = reservationRepository.findSnapshotsForClassroomPurge(id);
+        List<ReservationSnapshot> archived = archivedReservationRepository.findSnapshotsForClassroomPurge(id);
+        reservationRepository.deleteForClassroomPurge(id);
+        archivedReservationRepository.deleteForClassroomPurge(id);
+        reservationSeriesRepository.deleteByClassroomId(id);
+        classroomRepository.deleteAllByIdInBatch(List.of(id));
+        purged.forEach(snapshot -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(snapshot)));
+        archived.forEach(snapshot -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(snapshot)));
+        eventPublisher.publishEvent(ClassroomChangedEvent.deleted(id));
     }
 
     @Transactional(readOnly = true)
@@ -145,21 +179,90 @@ public class ClassroomService {
 
     @Transactional(readOnly = true)
     public List<ClassroomDTO> getAvailableNow() { 
+        if (occupancyTimeline.isReady()) {
+            return partitionByTimeline(true);
+        }
+        if (occupancyGrid.isReady()) {
+            return partitionByOccupancyNow(true);
+        }
         List<Classroom> classrooms = classroomRepository.findAvailableNow(Instant.now()); 
         return classrooms.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<ClassroomDTO> getUnavailableNow() { 
+        if (occupancyTimeline.isReady()) {
+            return partitionByTimeline(false);
+        }
+        if (occupancyGrid.isReady()) {
+            return partitionByOccupancyNow(false);
+        }
         List<Classroom> classrooms = classroomRepository.findUnavailableNow(Instant.now()); 
         return classrooms.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    // Catalog and timeline are both in memory, so this path does not touch the database
+    private List<ClassroomDTO> partitionByTimeline(boolean free) {
+        Set<String> occupiedIds = occupancyTimeline.occupiedClassroomIds();
+        return getAllClassroomsDTO().stream()
+                .filter(c -> occupiedIds.contains(c.getId()) != free)
+                .collect(Collectors.toList());
+    }
+
+    private List<ClassroomDTO> partitionByOccupancyNow(boolean free) {
+        Instant now = Instant.now();
+        List<ClassroomDTO> classrooms = getAllClassroomsDTO();
+        Set<String> freeIds = occupancyGrid.freeClassrooms(
+                classrooms.stream().map(ClassroomDTO::getId).collect(Collectors.toList()), now, now.plusMillis(1));
+        return classrooms.stream()
+                .filter(c -> freeIds.contains(c.getId()) == free)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Busy bitmaps per classroom over [from, to). Served from the in-memory grid only: while the availability index is
+     * still loading the caller gets a 503 with Retry-After instead of a scan, and ids are checked against the catalog.
+     */
+    public ClassroomOccupancyDTO getOccupancyBitmaps(Instant from, Instant to, List<String> classroomIds) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("El rango de fechas para la ocupación no es válido.");
+        }
+        if (!occupancyGrid.isReady()) {
+            throw new OccupancyUnavailableException("La cuadrícula de ocupación todavía no está disponible.",
+                    occupancyGrid.getRetryAfterSeconds());
+        }
+        if (!occupancyGrid.covers(from, to)) {
+            throw new IllegalArgumentException("El rango solicitado está fuera del horizonte de ocupación disponible.");
+        }
+        List<String> knownIds = getAllClassroomsDTO().stream().map(ClassroomDTO::getId).collect(Collectors.toList());
+        List<String> ids;
+        if (classroomIds == null || classroomIds.isEmpty()) {
+            ids = knownIds;
+        } else {
+            Set<String> known = new HashSet<>(knownIds);
+            List<String> unknown = classroomIds.stream().filter(id -> !known.contains(id)).distinct().collect(Collectors.toList());
+            if (!unknown.isEmpty()) {
+                throw new ResourceNotFoundException("Aulas no encontradas con ID: " + String.join(", ", unknown));
+            }
+            ids = classroomIds;
+        }
+        return ClassroomOccupancyDTO.builder()
+                .from(occupancyGrid.alignDown(from))
+                .to(occupancyGrid.alignUp(to))
+                .slotMinutes(occupancyGrid.getSlotMinutes())
+                .busy(occupancyGrid.busyBitmaps(ids, from, to))
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public boolean checkAvailability(AvailabilityRequest request) { 
         if (request == null || request.getClassroomId() == null || request.getStartTime() == null || request.getEndTime() == null) {
             throw new IllegalArgumentException("Datos incompletos para verificar disponibilidad.");
         }
+        // Ready together with the interval index; a clear bitmap answers without walking the tree
+        if (occupancyGrid.isReady()) {
+            return occupancyGrid.isFree(request.getClassroomId(), request.getStartTime(), request.getEndTime());
+        }
         return classroomRepository.isAvailableConsideringAllStatuses(
                 request.getClassroomId(),
                 request.getStartTime(), 
@@ -167,17 +270,20 @@ public class ClassroomService {
         );
     }
 
-    @Transactional(readOnly = true)
     public ClassroomAvailabilitySummaryDTO getAvailabilitySummary() {
-        List<Classroom> availableEntities = classroomRepository.findAvailableNow(Instant.now());
-        List<Classroom> unavailableEntities = classroomRepository.findUnavailableNow(Instant.now());
+        return availabilitySummaryCache.get(this::computeAvailabilitySummary);
+    }
+
+    // Counts only: the index answers "occupied now" in memory, the queries are the fallback until it is ready
+    private ClassroomAvailabilitySummaryDTO computeAvailabilitySummary(Instant now) {
         long total = classroomRepository.count();
-        
-        return new ClassroomAvailabilitySummaryDTO(
-            availableEntities != null ? availableEntities.size() : 0, 
-            unavailableEntities != null ? unavailableEntities.size() : 0, 
-            (int) total
-        );
+        long occupied;
+        if (availabilityIndex.isReady()) {
+            occupied = availabilityIndex.occupiedClassroomCount(now);
+        } else {
+            occupied = classroomRepository.countUnavailableNow(now);
+        }
+        return new ClassroomAvailabilitySummaryDTO((int) (total - occupied), (int) occupied, (int) total);
     }
 
     @Transactional(readOnly = true)
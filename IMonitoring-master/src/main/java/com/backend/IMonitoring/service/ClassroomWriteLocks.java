@@ -0,0 +1,95 @@
+package com.backend.IMonitoring.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Serializes reservation writes per classroom inside this JVM with a fixed array of striped locks. A stripe is held
+ * from the overlap check until the surrounding transaction completes, i.e. after the commit and the after-commit index
+ * update, so a second booking for the same room always sees the first one. All stripes a transaction needs are taken
+ * in one call, in ascending index order, which keeps writers that touch several rooms from deadlocking; a later call in
+ * the same transaction may only ask for stripes it already holds.
+ */
+@Component
+public class ClassroomWriteLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public ClassroomWriteLocks(@Value("${app.reservations.lock-stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("app.reservations.lock-stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(String... classroomIds) {
+        lockUntilCompletion(Arrays.asList(classroomIds));
+    }
+
+    /**
+     * Locks the stripes of the given classrooms (nulls ignored) and releases them when the current transaction completes.
+     *
+     * @throws IllegalStateException if there is no transaction, or if an earlier call in this transaction already took
+     *                               stripes and this one needs another, which could invert the lock order
+     */
+    public void lockUntilCompletion(Collection<String> classroomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Classroom write locks require an active transaction");
+        }
+        int[] indexes = classroomIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        if (indexes.length == 0) {
+            return;
+        }
+        Set<Integer> held = heldStripes();
+        if (held != null) {
+            for (int index : indexes) {
+                if (!held.contains(index)) {
+                    throw new IllegalStateException("Classroom write locks must be taken in a single call per transaction");
+                }
+            }
+            return;
+        }
+        ReentrantLock[] acquired = new ReentrantLock[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            acquired[i] = stripes[indexes[i]];
+            acquired[i].lock();
+        }
+        TransactionSynchronizationManager.bindResource(this, Arrays.stream(indexes).boxed().collect(Collectors.toSet()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ClassroomWriteLocks.this);
+                for (int i = acquired.length - 1; i >= 0; i--) {
+                    acquired[i].unlock();
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Integer> heldStripes() {
+        return (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private int stripeIndex(String classroomId) {
+        int h = classroomId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), stripes.length);
+    }
+}
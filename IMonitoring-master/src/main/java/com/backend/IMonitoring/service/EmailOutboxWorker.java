@@ -0,0 +1,239 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.model.OutboxEmail;
+import com.backend.IMonitoring.model.OutboxEmailStatus;
+import com.backend.IMonitoring.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the email outbox. A batch is claimed in a short transaction by pushing its {@code next_attempt_at} forward by
+ * the lease (on PostgreSQL with {@code FOR UPDATE SKIP LOCKED}, so several nodes can drain in parallel), then sent
+ * outside any transaction with one {@link JavaMailSender#send(SimpleMailMessage...)} call, which delivers the whole
+ * batch over a single SMTP connection. Failed messages are retried with exponential backoff and jitter until
+ * {@code max-attempts}, after which they are left as FALLIDO.
+ */
+@Service
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox o SET next_attempt_at = ? FROM (" +
+            "  SELECT id FROM email_outbox WHERE status = 'PENDIENTE' AND next_attempt_at <= ?" +
+            "  ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) c " +
+            "WHERE o.id = c.id " +
+            "RETURNING o.id, o.recipient, o.subject, o.body, o.attempts";
+
+    private final JavaMailSender mailSender;
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter abandonedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+
+    @Value("${app.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${app.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private Boolean postgres;
+
+    public EmailOutboxWorker(JavaMailSender mailSender,
+                             OutboxEmailRepository outboxEmailRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sentCounter = Counter.builder("mail.outbox.sent")
+                .description("Outbox emails delivered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failures")
+                .description("Outbox delivery attempts that failed and were rescheduled or abandoned")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("mail.outbox.abandoned")
+                .description("Outbox emails marked FALLIDO after exhausting their attempts")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.outbox.batch")
+                .description("Time to send one outbox batch over SMTP")
+                .register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox emails waiting for delivery, as of the last worker run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.outbox.interval-ms:5000}",
+               fixedDelayString = "${app.mail.outbox.interval-ms:5000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<OutboxEmail> claimed = transactionTemplate.execute(status -> claim(Instant.now()));
+                if (claimed == null || claimed.isEmpty()) {
+                    break;
+                }
+                batchTimer.record(() -> deliver(claimed));
+                if (claimed.size() < batchSize) {
+                    break;
+                }
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEmailRepository.deleteSentBefore(Instant.now().minus(Duration.ofDays(retentionDays))));
+            pending.set(outboxEmailRepository.countByStatus(OutboxEmailStatus.PENDIENTE));
+        } catch (DataAccessException e) {
+            logger.warn("Email outbox run failed: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private List<OutboxEmail> claim(Instant now) {
+        Instant leaseUntil = now.plusMillis(leaseMs);
+        if (isPostgres()) {
+            return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> OutboxEmail.builder()
+                    .id(rs.getString("id"))
+                    .recipient(rs.getString("recipient"))
+                    .subject(rs.getString("subject"))
+                    .body(rs.getString("body"))
+                    .attempts(rs.getInt("attempts"))
+                    .build(), Timestamp.from(leaseUntil), Timestamp.from(now), batchSize);
+        }
+        // Other databases: select then lease inside the same short transaction, without skipping locked rows
+        List<OutboxEmail> due = outboxEmailRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (!due.isEmpty()) {
+            outboxEmailRepository.lease(due.stream().map(OutboxEmail::getId).collect(Collectors.toList()), leaseUntil);
+        }
+        return due;
+    }
+
+    private void deliver(List<OutboxEmail> batch) {
+        Map<SimpleMailMessage, OutboxEmail> byMessage = new IdentityHashMap<>();
+        for (OutboxEmail email : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            byMessage.put(message, email);
+        }
+        Map<OutboxEmail, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures when the server rejected some recipients; none listed means the batch never went out
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(email -> failures.put(email, e));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    OutboxEmail email = byMessage.get(message);
+                    if (email != null) {
+                        failures.put(email, cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            batch.forEach(email -> failures.put(email, e));
+        }
+
+        List<String> sentIds = new ArrayList<>();
+        for (OutboxEmail email : batch) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+            }
+        }
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEmailRepository.markSent(sentIds, now);
+            }
+            failures.forEach((email, cause) -> {
+                int attempts = email.getAttempts() + 1;
+                boolean abandoned = attempts >= maxAttempts;
+                outboxEmailRepository.markFailed(email.getId(),
+                        abandoned ? OutboxEmailStatus.FALLIDO : OutboxEmailStatus.PENDIENTE,
+                        attempts, now.plusMillis(backoff(attempts)), truncate(cause.getMessage()));
+                if (abandoned) {
+                    abandonedCounter.increment();
+                    logger.warn("Giving up on email {} to {} after {} attempts: {}",
+                            email.getId(), email.getRecipient(), attempts, cause.getMessage());
+                }
+            });
+        });
+        sentCounter.increment(sentIds.size());
+        failedCounter.increment(failures.size());
+    }
+
+    // Exponential backoff from the base delay, capped, with up to 20% jitter so retries of a batch spread out
+    private long backoff(int attempts) {
+        long delay = backoffBaseMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay < 0 ? backoffMaxMs : delay, backoffMaxMs);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+}
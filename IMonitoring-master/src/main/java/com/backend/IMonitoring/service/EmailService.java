@@ -1,30 +1,44 @@
 package com.backend.IMonitoring.service;
 
+import com.backend.IMonitoring.model.OutboxEmail;
+import com.backend.IMonitoring.repository.OutboxEmailRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
+/**
+ * Composes outgoing emails and writes them to the outbox in the caller's transaction; {@link EmailOutboxWorker}
+ * delivers them after commit, so a slow or failing SMTP server never holds or rolls back the request.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private final OutboxEmailRepository outboxEmailRepository;
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
     public void sendVerificationEmail(String to, String token) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Verificación de Correo Electrónico - IMonitoring");
         String verificationUrl = frontendUrl + "/verify-email?token=" + token;
-        message.setText("Hola,\n\n" +
-                        "¡Gracias por registrarte en IMonitoring!.\n" +
-                        "Por favor, haz clic en el siguiente botón para verificar tu correo electrónico y activar tu cuenta:\n\n" +
-                        "[" + verificationUrl + "]\n" +
-                        "Haz clic aquí para activar tu cuenta: " + verificationUrl + "\n\n" + 
-                        "Si no te registraste, por favor ignora este correo." +
-                        "\n\nSaludos,\nEl equipo de IMonitoring");
-        mailSender.send(message);
+        enqueue(to, "Verificación de Correo Electrónico - IMonitoring",
+                "Hola,\n\n" +
+                "¡Gracias por registrarte en IMonitoring!.\n" +
+                "Por favor, haz clic en el siguiente botón para verificar tu correo electrónico y activar tu cuenta:\n\n" +
+                "[" + verificationUrl + "]\n" +
+                "Haz clic aquí para activar tu cuenta: " + verificationUrl + "\n\n" + 
+                "Si no te registraste, por favor ignora este correo." +
+                "\n\nSaludos,\nEl equipo de IMonitoring");
+    }
+
+    public void enqueue(String to, String subject, String body) {
+        Instant now = Instant.now();
+        outboxEmailRepository.save(OutboxEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
     }
-}
\ No newline at end of file
+}
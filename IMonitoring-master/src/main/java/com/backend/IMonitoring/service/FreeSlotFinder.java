@@ -0,0 +1,205 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.FreeSlotDTO;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.utils.IntervalTree;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the earliest free windows of a given duration across classrooms. Candidates are pruned with the classroom
+ * repository filters, then each classroom's sorted busy intervals are scanned for gaps on a dedicated fork-join pool.
+ */
+@Service
+public class FreeSlotFinder {
+
+    private static final Pattern SHORT_DURATION = Pattern.compile("(?i)^(?:(\\d+)h)?\\s*(?:(\\d+)m)?$");
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int MAX_LIMIT = 200;
+
+    private final ClassroomRepository classroomRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final ForkJoinPool searchPool;
+
+    public FreeSlotFinder(ClassroomRepository classroomRepository,
+                          ReservationRepository reservationRepository,
+                          ReservationAvailabilityIndex availabilityIndex,
+                          @Value("${app.availability.free-slots.parallelism:0}") int parallelism) {
+        this.classroomRepository = classroomRepository;
+        this.reservationRepository = reservationRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.searchPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchPool.shutdown();
+    }
+
+    private record Gap(String classroomId, long start, long end) {
+    }
+
+    @Transactional(readOnly = true)
+    public List<FreeSlotDTO> findFreeSlots(String duration, Instant from, Instant to, Integer minCapacity,
+                                           ClassroomType type, String buildingId, int limit) {
+        long durationMillis = parseDuration(duration).toMillis();
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException("La duración debe ser positiva.");
+        }
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("El rango de fechas para la búsqueda no es válido.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT + ".");
+        }
+
+        Map<String, Classroom> candidates = candidateClassrooms(minCapacity, type, buildingId);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<IntervalTree.Interval>> busy = busyIntervals(candidates.keySet(), from, to);
+        long windowStart = from.toEpochMilli();
+        long windowEnd = to.toEpochMilli();
+
+        List<Gap> gaps;
+        try {
+            gaps = searchPool.submit(() -> candidates.keySet().parallelStream()
+                    .flatMap(id -> scan(id, busy.getOrDefault(id, List.of()), windowStart, windowEnd, durationMillis, limit).stream())
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La búsqueda de huecos libres fue interrumpida.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al buscar huecos libres.", e.getCause());
+        }
+
+        return gaps.stream()
+                .sorted(Comparator.comparingLong(Gap::start).thenComparing(g -> candidates.get(g.classroomId()).getName()))
+                .limit(limit)
+                .map(gap -> toDTO(candidates.get(gap.classroomId()), gap, durationMillis))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gaps of at least {@code durationMillis} between the busy intervals of one classroom, earliest first.
+     */
+    private static List<Gap> scan(String classroomId, List<IntervalTree.Interval> busy, long from, long to, long durationMillis, int limit) {
+        List<Gap> gaps = new ArrayList<>();
+        long cursor = from;
+        for (IntervalTree.Interval interval : busy) {
+            if (interval.start() - cursor >= durationMillis) {
+                gaps.add(new Gap(classroomId, cursor, Math.min(interval.start(), to)));
+                if (gaps.size() == limit) {
+                    return gaps;
+                }
+            }
+            cursor = Math.max(cursor, interval.end());
+            if (to - cursor < durationMillis) {
+                return gaps;
+            }
+        }
+        if (to - cursor >= durationMillis) {
+            gaps.add(new Gap(classroomId, cursor, to));
+        }
+        return gaps;
+    }
+
+    private Map<String, Classroom> candidateClassrooms(Integer minCapacity, ClassroomType type, String buildingId) {
+        Sort byName = Sort.by(Sort.Direction.ASC, "name");
+        List<Classroom> classrooms;
+        if (buildingId != null && !buildingId.isBlank()) {
+            classrooms = classroomRepository.findByBuilding_Id(buildingId);
+        } else if (type != null) {
+            classrooms = classroomRepository.findByType(type, byName);
+        } else if (minCapacity != null) {
+            classrooms = classroomRepository.findByCapacityGreaterThanEqual(minCapacity, byName);
+        } else {
+            classrooms = classroomRepository.findAll(byName);
+        }
+        return classrooms.stream()
+                .filter(c -> type == null || c.getType() == type)
+                .filter(c -> minCapacity == null || (c.getCapacity() != null && c.getCapacity() >= minCapacity))
+                .collect(Collectors.toMap(Classroom::getId, Function.identity()));
+    }
+
+    private Map<String, List<IntervalTree.Interval>> busyIntervals(Iterable<String> classroomIds, Instant from, Instant to) {
+        Map<String, List<IntervalTree.Interval>> busy = new HashMap<>();
+        if (availabilityIndex.isReady()) {
+            for (String classroomId : classroomIds) {
+                busy.put(classroomId, availabilityIndex.intervals(classroomId, from, to));
+            }
+            return busy;
+        }
+        List<String> ids = new ArrayList<>();
+        classroomIds.forEach(ids::add);
+        for (int i = 0; i < ids.size(); i += IN_CHUNK_SIZE) {
+            for (ReservationSnapshot snapshot : reservationRepository.findActiveSnapshotsInRange(
+                    ids.subList(i, Math.min(ids.size(), i + IN_CHUNK_SIZE)), from, to)) {
+                busy.computeIfAbsent(snapshot.classroomId(), id -> new ArrayList<>())
+                        .add(new IntervalTree.Interval(snapshot.id(), snapshot.startTime().toEpochMilli(), snapshot.endTime().toEpochMilli()));
+            }
+        }
+        busy.values().forEach(list -> list.sort(Comparator.comparingLong(IntervalTree.Interval::start)));
+        return busy;
+    }
+
+    /**
+     * Accepts "90m", "1h30m", "2h", ISO-8601 ("PT90M") or a plain number of minutes.
+     */
+    static Duration parseDuration(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("La duración es obligatoria.");
+        }
+        String trimmed = value.trim();
+        if (trimmed.chars().allMatch(Character::isDigit)) {
+            return Duration.ofMinutes(Long.parseLong(trimmed));
+        }
+        Matcher matcher = SHORT_DURATION.matcher(trimmed);
+        if (matcher.matches() && (matcher.group(1) != null || matcher.group(2) != null)) {
+            long hours = matcher.group(1) != null ? Long.parseLong(matcher.group(1)) : 0;
+            long minutes = matcher.group(2) != null ? Long.parseLong(matcher.group(2)) : 0;
+            return Duration.ofHours(hours).plusMinutes(minutes);
+        }
+        try {
+            return Duration.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de duración no válido: " + value);
+        }
+    }
+
+    private static FreeSlotDTO toDTO(Classroom classroom, Gap gap, long durationMillis) {
+        return FreeSlotDTO.builder()
+                .classroomId(classroom.getId())
+                .classroomName(classroom.getName())
+                .buildingName(classroom.getBuilding() != null ? classroom.getBuilding().getName() : null)
+                .capacity(classroom.getCapacity())
+                .type(classroom.getType())
+                .start(Instant.ofEpochMilli(gap.start()))
+                .end(Instant.ofEpochMilli(gap.start() + durationMillis))
+                .freeUntil(Instant.ofEpochMilli(gap.end()))
+                .build();
+    }
+}
@@ -2,22 +2,45 @@ package com.backend.IMonitoring.service;
 
 import com.backend.IMonitoring.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once; verified claims are kept in a bounded cache
+ * keyed by the SHA-256 of the token until the token expires, so a token seen again is checked with a hash lookup
+ * instead of a signature verification.
+ * <p>
+ * The cache is a {@link ConcurrentHashMap}, so lookups take no lock and do not reorder anything. When an insert takes it
+ * past its capacity, one thread at a time sweeps it: expired claims go first, then arbitrary entries (keys are hashes, so
+ * iteration order is effectively random) until it is back to 90% of capacity.
+ */
 @Service
 public class JwtService {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
     @Value("${jwt.secret-key}")
     private String secretKey;
 
@@ -27,6 +50,22 @@ public class JwtService {
     @Value("${jwt.refresh-expiration.ms}")
     private long refreshExpiration;
 
+    @Value("${jwt.claims-cache.size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private int claimsCacheCapacity;
+    private final Map<String, Claims> claimsCache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        claimsCacheCapacity = Math.max(0, claimsCacheSize);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -49,12 +88,24 @@ public class JwtService {
         extraClaims.put("role", userDetails.getRole().name());
         extraClaims.put("avatarUrl", userDetails.getAvatarUrl());
         extraClaims.put("enabled", userDetails.isEnabled());
+        extraClaims.put("ver", userDetails.getTokenVersion());
 
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
-    public String generateRefreshToken(User userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    /**
+     * Refresh token identified by {@code jti} within a rotation family; it also carries the user's token version.
+     */
+    public String generateRefreshToken(User userDetails, String jti, String familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Claims.ID, jti);
+        claims.put("fam", familyId);
+        claims.put("ver", userDetails.getTokenVersion());
+        return buildToken(claims, userDetails, refreshExpiration);
+    }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpiration;
     }
 
     private String buildToken(
@@ -67,7 +118,7 @@ public class JwtService {
                 .subject(userDetails.getEmail())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -80,7 +131,7 @@ public class JwtService {
         try {
             return !isTokenExpired(token);
         } catch (Exception e) {
-            System.err.println("Token validation failed: " + e.getMessage());
+            logger.debug("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
@@ -89,17 +140,68 @@ public class JwtService {
         return extractAllClaims(token).getExpiration().before(new Date());
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * Claims of a correctly signed, unexpired token, or null when the token is malformed, forged or expired.
+     */
+    public Claims parseValid(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (claimsCacheCapacity == 0) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+        String key = sha256(token);
+        Claims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (!isExpired(cached, new Date())) {
+                return cached;
+            }
+            claimsCache.remove(key, cached);
+        }
+        // Throws ExpiredJwtException for expired tokens, so only tokens valid right now are cached
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(key, claims);
+        if (claimsCache.size() > claimsCacheCapacity) {
+            evictClaims();
+        }
+        return claims;
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Only inserts past capacity wait here, and they just paid for a signature check; the first one in does the sweep
+    private void evictClaims() {
+        evictionLock.lock();
+        try {
+            if (claimsCache.size() <= claimsCacheCapacity) {
+                return;
+            }
+            Date now = new Date();
+            claimsCache.values().removeIf(claims -> isExpired(claims, now));
+            int target = claimsCacheCapacity - claimsCacheCapacity / 10;
+            Iterator<String> keys = claimsCache.keySet().iterator();
+            while (claimsCache.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static boolean isExpired(Claims claims, Date now) {
+        return claims.getExpiration() != null && !claims.getExpiration().after(now);
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
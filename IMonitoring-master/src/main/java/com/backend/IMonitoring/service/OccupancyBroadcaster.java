@@ -0,0 +1,319 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.OccupancyEventDTO;
+import com.backend.IMonitoring.event.ClassroomChangedEvent;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live occupancy over Server-Sent Events. One broadcaster thread owns the "occupied now" state of every classroom:
+ * it applies reservation/classroom change events, wakes up at the next reservation boundary taken from the
+ * availability index, and turns every state change into a delta serialized once for all subscribers.
+ * Each subscriber has a bounded queue drained by a small sender pool; when it overflows the oldest message is dropped
+ * and the subscriber is resynchronized with a fresh snapshot, so a slow client never holds more than its queue.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyBroadcaster.class);
+
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final ClassroomService classroomService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.occupancy.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.occupancy.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.occupancy.stream.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${app.occupancy.stream.max-tick-seconds:300}")
+    private long maxTickSeconds;
+
+    @Value("${app.occupancy.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private record Message(String name, String data) {
+    }
+
+    private ScheduledExecutorService broadcaster;
+    private ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Confined to the broadcaster thread
+    private final Map<String, Boolean> occupied = new HashMap<>();
+    private boolean initialized;
+    private ScheduledFuture<?> nextTick;
+    private long nextTickAt = Long.MAX_VALUE;
+
+    @PostConstruct
+    public void start() {
+        broadcaster = Executors.newSingleThreadScheduledExecutor(namedDaemon("occupancy-broadcaster"));
+        senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), namedDaemon("occupancy-sender"));
+        broadcaster.scheduleAtFixedRate(() -> publish(new Message(null, "keepalive")),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        broadcaster.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe() {
+        if (!availabilityIndex.isReady()) {
+            throw new IllegalStateException("La ocupación en vivo todavía no está disponible.");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Registered on the broadcaster thread so the snapshot and the deltas that follow it are consistent
+        broadcaster.execute(() -> {
+            ensureInitialized();
+            subscriber.offer(snapshotMessage());
+            subscribers.add(subscriber);
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        broadcaster.execute(() -> applyReservationChange(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        broadcaster.execute(() -> {
+            if (initialized) {
+                refreshAll(Instant.now());
+                reschedule();
+            }
+        });
+    }
+
+    private void applyReservationChange(ReservationChangedEvent event) {
+        if (!initialized) {
+            return;
+        }
+        Instant now = Instant.now();
+        ReservationSnapshot before = event.before();
+        ReservationSnapshot after = event.after();
+        ReservationSnapshot any = after != null ? after : before;
+        if (before == null || after == null || before.status() != after.status()) {
+            publish(message("reservation", OccupancyEventDTO.builder()
+                    .at(now)
+                    .reservationId(any.id())
+                    .classroomId(any.classroomId())
+                    .previousStatus(before != null ? before.status() : null)
+                    .status(after != null ? after.status() : null)
+                    .build()));
+        }
+        if (before != null) {
+            refresh(before.classroomId(), now);
+        }
+        if (after != null && (before == null || !after.classroomId().equals(before.classroomId()))) {
+            refresh(after.classroomId(), now);
+        }
+        reschedule();
+    }
+
+    private void tick() {
+        nextTick = null;
+        nextTickAt = Long.MAX_VALUE;
+        try {
+            refreshAll(Instant.now());
+        } catch (RuntimeException e) {
+            logger.warn("Occupancy timeline tick failed: {}", e.getMessage());
+        }
+        reschedule();
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            refreshAll(Instant.now());
+            initialized = true;
+            reschedule();
+        }
+    }
+
+    private void refreshAll(Instant now) {
+        Set<String> current = new HashSet<>();
+        for (ClassroomDTO classroom : classroomService.getAllClassroomsDTO()) {
+            current.add(classroom.getId());
+            refresh(classroom.getId(), now);
+        }
+        for (Iterator<String> it = occupied.keySet().iterator(); it.hasNext(); ) {
+            String classroomId = it.next();
+            if (!current.contains(classroomId)) {
+                it.remove();
+                publish(message("removed", OccupancyEventDTO.builder().at(now).classroomId(classroomId).build()));
+            }
+        }
+    }
+
+    private void refresh(String classroomId, Instant now) {
+        boolean isOccupied = availabilityIndex.hasConflict(classroomId, now, now.plusMillis(1), null);
+        Boolean previous = occupied.put(classroomId, isOccupied);
+        if (initialized && !Objects.equals(previous, isOccupied)) {
+            publish(message("occupancy", OccupancyEventDTO.builder().at(now).classroomId(classroomId).occupied(isOccupied).build()));
+        }
+    }
+
+    // Wakes up just after the next reservation start or end, or after max-tick-seconds as a safety net
+    private void reschedule() {
+        long now = System.currentTimeMillis();
+        long boundary = availabilityIndex.nextBoundaryAfter(Instant.ofEpochMilli(now));
+        long wakeUp = Math.min(boundary == Long.MAX_VALUE ? Long.MAX_VALUE : boundary + 1,
+                now + Duration.ofSeconds(maxTickSeconds).toMillis());
+        if (nextTick != null && !nextTick.isDone() && nextTickAt <= wakeUp) {
+            return;
+        }
+        if (nextTick != null) {
+            nextTick.cancel(false);
+        }
+        nextTickAt = wakeUp;
+        nextTick = broadcaster.schedule(this::tick, Math.max(0, wakeUp - now), TimeUnit.MILLISECONDS);
+    }
+
+    private Message snapshotMessage() {
+        List<String> occupiedIds = new ArrayList<>();
+        List<String> freeIds = new ArrayList<>();
+        new TreeMap<>(occupied).forEach((id, busy) -> (busy ? occupiedIds : freeIds).add(id));
+        return message("snapshot", OccupancyEventDTO.builder()
+                .at(Instant.now())
+                .occupiedClassroomIds(occupiedIds)
+                .freeClassroomIds(freeIds)
+                .build());
+    }
+
+    private Message message(String name, OccupancyEventDTO payload) {
+        try {
+            return new Message(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize occupancy event", e);
+        }
+    }
+
+    private void publish(Message message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private void resync(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.queue.clear();
+            subscriber.resyncRequested = false;
+        }
+        subscriber.offer(snapshotMessage());
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayDeque<Message> queue = new ArrayDeque<>();
+        boolean draining;
+        boolean resyncRequested;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            boolean startDrain;
+            synchronized (this) {
+                if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    if (!resyncRequested && message.name() != null) {
+                        resyncRequested = true;
+                        broadcaster.execute(() -> resync(this));
+                    }
+                }
+                queue.addLast(message);
+                startDrain = !draining;
+                draining = true;
+            }
+            if (startDrain) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            while (true) {
+                Message message;
+                synchronized (this) {
+                    message = queue.pollFirst();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (message.name() == null) {
+                        emitter.send(SseEmitter.event().comment(message.data()));
+                    } else {
+                        emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        queue.clear();
+                        draining = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,246 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.utils.HierarchicalTimerWheel;
+import com.backend.IMonitoring.utils.IntervalTree;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Occupied now" for every classroom as a bitmap flipped by a hierarchical timer wheel. The start and end of each
+ * active reservation within the loading horizon are armed as timers; firing a start sets the classroom's bit and firing
+ * the last pending end clears it. Reservation changes disarm and re-arm the affected timers after commit, and the
+ * horizon is extended periodically. Boundaries are read from {@link ReservationAvailabilityIndex}, which is itself
+ * loaded from the database, so the timeline needs no queries of its own.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyTimeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyTimeline.class);
+
+    private final ReservationAvailabilityIndex availabilityIndex;
+
+    @Value("${app.availability.timeline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.availability.timeline.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${app.availability.timeline.horizon-hours:48}")
+    private long horizonHours;
+
+    private record Boundary(String reservationId, boolean start) {
+    }
+
+    private static final class Tracked {
+        final int slot;
+        boolean counted;
+        HierarchicalTimerWheel.Timer<Boundary> startTimer;
+        HierarchicalTimerWheel.Timer<Boundary> endTimer;
+
+        Tracked(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private HierarchicalTimerWheel<Boundary> wheel;
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> slotClassroomIds = new ArrayList<>();
+    private int[] activeCounts = new int[64];
+    private final BitSet occupied = new BitSet();
+    private long loadedUntil;
+    private volatile boolean ready;
+    private ScheduledExecutorService ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Occupancy timeline disabled; available-now queries will use the database.");
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "occupancy-timeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Classrooms with an active reservation at this moment, exact to within one tick.
+     */
+    public synchronized Set<String> occupiedClassroomIds() {
+        if (!ready) {
+            throw new IllegalStateException("Occupancy timeline is not loaded yet");
+        }
+        wheel.advance(System.currentTimeMillis(), this::onBoundary);
+        Set<String> ids = new HashSet<>();
+        for (int slot = occupied.nextSetBit(0); slot >= 0; slot = occupied.nextSetBit(slot + 1)) {
+            ids.add(slotClassroomIds.get(slot));
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        wheel.advance(now, this::onBoundary);
+        if (event.before() != null) {
+            untrack(event.before().id());
+        }
+        ReservationSnapshot after = event.after();
+        if (after != null && after.isActive() && after.endTime().toEpochMilli() > now
+                && after.startTime().toEpochMilli() < loadedUntil) {
+            track(after.classroomId(), after.id(), after.startTime().toEpochMilli(), after.endTime().toEpochMilli(), now);
+        }
+    }
+
+    private synchronized void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!ready) {
+                if (availabilityIndex.isReady()) {
+                    load(now);
+                }
+                return;
+            }
+            wheel.advance(now, this::onBoundary);
+            if (loadedUntil - now < horizonMillis() / 2) {
+                extend(now, now + horizonMillis());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Occupancy timeline tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void load(long now) {
+        long started = System.currentTimeMillis();
+        wheel = new HierarchicalTimerWheel<>(tickMillis, now);
+        loadedUntil = now;
+        extend(now, now + horizonMillis());
+        ready = true;
+        logger.info("Occupancy timeline armed with {} reservations, {} classrooms occupied now, in {} ms.",
+                tracked.size(), occupied.cardinality(), System.currentTimeMillis() - started);
+    }
+
+    // Arms the reservations starting in [loadedUntil, until) plus, on the first load, the ones already running
+    private void extend(long now, long until) {
+        Instant from = Instant.ofEpochMilli(loadedUntil);
+        Instant to = Instant.ofEpochMilli(until);
+        for (String classroomId : availabilityIndex.indexedClassroomIds()) {
+            for (IntervalTree.Interval interval : availabilityIndex.intervals(classroomId, from, to)) {
+                if (!tracked.containsKey(interval.id()) && interval.end() > now) {
+                    track(classroomId, interval.id(), interval.start(), interval.end(), now);
+                }
+            }
+        }
+        loadedUntil = until;
+    }
+
+    private void track(String classroomId, String reservationId, long start, long end, long now) {
+        untrack(reservationId);
+        Tracked entry = new Tracked(slot(classroomId));
+        if (start <= now) {
+            entry.counted = true;
+            increment(entry.slot);
+        } else {
+            entry.startTimer = wheel.schedule(start, new Boundary(reservationId, true));
+        }
+        entry.endTimer = wheel.schedule(end, new Boundary(reservationId, false));
+        tracked.put(reservationId, entry);
+    }
+
+    private void untrack(String reservationId) {
+        Tracked entry = tracked.remove(reservationId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.startTimer != null) {
+            entry.startTimer.cancel();
+        }
+        entry.endTimer.cancel();
+        if (entry.counted) {
+            decrement(entry.slot);
+        }
+    }
+
+    private void onBoundary(Boundary boundary) {
+        Tracked entry = tracked.get(boundary.reservationId());
+        if (entry == null) {
+            return;
+        }
+        if (boundary.start()) {
+            entry.counted = true;
+            increment(entry.slot);
+        } else {
+            tracked.remove(boundary.reservationId());
+            if (entry.counted) {
+                decrement(entry.slot);
+            }
+        }
+    }
+
+    private int slot(String classroomId) {
+        return slots.computeIfAbsent(classroomId, id -> {
+            slotClassroomIds.add(id);
+            return slotClassroomIds.size() - 1;
+        });
+    }
+
+    private void increment(int slot) {
+        if (slot >= activeCounts.length) {
+            activeCounts = Arrays.copyOf(activeCounts, Math.max(slot + 1, activeCounts.length * 2));
+        }
+        if (activeCounts[slot]++ == 0) {
+            occupied.set(slot);
+        }
+    }
+
+    private void decrement(int slot) {
+        if (--activeCounts[slot] == 0) {
+            occupied.clear(slot);
+        }
+    }
+
+    private long horizonMillis() {
+        return Duration.ofHours(horizonHours).toMillis();
+    }
+}
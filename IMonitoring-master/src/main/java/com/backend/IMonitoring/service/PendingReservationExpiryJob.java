@@ -0,0 +1,156 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rejects PENDIENTE reservations whose start time has passed without a decision, so they stop blocking their slot.
+ * Each chunk is one short transaction: on PostgreSQL a single UPDATE over a {@code FOR UPDATE SKIP LOCKED} selection
+ * with RETURNING, so rows being edited by a request (or by the job on another node) are skipped rather than waited on.
+ * The returned rows are published as reservation changes and reach the in-memory views after each chunk commits.
+ */
+@Service
+public class PendingReservationExpiryJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingReservationExpiryJob.class);
+
+    private static final String EXPIRE_CHUNK_SQL =
+            "WITH expired AS (" +
+            "  SELECT id FROM reservations WHERE status = 'PENDIENTE' AND start_time < ?" +
+            "  ORDER BY start_time LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE reservations r SET status = 'RECHAZADA' FROM expired e WHERE r.id = e.id " +
+            "RETURNING r.id, r.classroom_id, r.user_id, r.start_time, r.end_time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter expiredCounter;
+    private final Timer runTimer;
+
+    @Value("${app.reservations.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservations.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.reservations.expiry.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Value("${app.reservations.expiry.grace-minutes:0}")
+    private long graceMinutes;
+
+    private Boolean postgres;
+
+    public PendingReservationExpiryJob(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       ReservationRepository reservationRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.expiredCounter = Counter.builder("reservations.expiry.rows")
+                .description("Pending reservations rejected because their start time passed")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reservations.expiry.run")
+                .description("Duration of a pending reservation expiry run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.reservations.expiry.interval-ms:60000}",
+               fixedDelayString = "${app.reservations.expiry.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int expired = runTimer.record(this::expireAll);
+            if (expired > 0) {
+                logger.info("Rejected {} pending reservations whose start time had passed.", expired);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Pending reservation expiry failed: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Expires every PENDIENTE reservation that started before now minus the grace period, chunk by chunk.
+     */
+    public int expireAll() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(graceMinutes));
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer expired = transactionTemplate.execute(status -> expireChunk(cutoff));
+            int count = expired != null ? expired : 0;
+            total += count;
+            expiredCounter.increment(count);
+            if (count < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int expireChunk(Instant cutoff) {
+        List<ReservationSnapshot> expired = isPostgres()
+                ? jdbcTemplate.query(EXPIRE_CHUNK_SQL, (rs, rowNum) -> new ReservationSnapshot(
+                        rs.getString("id"),
+                        rs.getString("classroom_id"),
+                        rs.getString("user_id"),
+                        rs.getTimestamp("start_time").toInstant(),
+                        rs.getTimestamp("end_time").toInstant(),
+                        ReservationStatus.PENDIENTE), Timestamp.from(cutoff), chunkSize)
+                : expireChunkPortable(cutoff);
+        for (ReservationSnapshot before : expired) {
+            eventPublisher.publishEvent(ReservationChangedEvent.updated(before, new ReservationSnapshot(
+                    before.id(), before.classroomId(), before.userId(), before.startTime(), before.endTime(),
+                    ReservationStatus.RECHAZADA)));
+        }
+        return expired.size();
+    }
+
+    // Other databases: select then update inside the same short transaction, without skipping locked rows
+    private List<ReservationSnapshot> expireChunkPortable(Instant cutoff) {
+        List<ReservationSnapshot> expired = reservationRepository.findPendingSnapshotsStartingBefore(
+                cutoff, PageRequest.of(0, chunkSize, Sort.by(Sort.Direction.ASC, "startTime")));
+        if (!expired.isEmpty()) {
+            reservationRepository.updateStatusByIds(
+                    expired.stream().map(ReservationSnapshot::id).collect(Collectors.toList()), ReservationStatus.RECHAZADA);
+        }
+        return expired;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+}
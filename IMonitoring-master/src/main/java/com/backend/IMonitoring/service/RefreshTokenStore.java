@@ -0,0 +1,195 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.exceptions.InvalidCredentialsException;
+import com.backend.IMonitoring.model.RefreshToken;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.RefreshTokenRepository;
+import com.backend.IMonitoring.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent refresh token families with rotation and reuse detection. Issuing a token inserts its {@code jti};
+ * using it marks the row as used with a single conditional UPDATE, so only one caller can rotate a given token.
+ * Presenting a used, revoked or unknown token revokes its whole family, in a separate transaction that survives the
+ * rejected request.
+ * <p>
+ * Spent ids (used or revoked, not yet expired) are also kept in memory: an exact map guarded by a Bloom filter,
+ * reloaded at startup and rebuilt after each purge. A replayed token is rejected without touching the database, and a
+ * fresh token, which the filter almost always rules out, goes straight to its single rotation UPDATE.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate independentTransaction;
+    private final Counter reuseCounter;
+
+    @Value("${app.auth.refresh.bloom-expected-entries:100000}")
+    private long bloomExpectedEntries;
+
+    @Value("${app.auth.refresh.bloom-false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    @Value("${app.auth.refresh.batch-size:1000}")
+    private int batchSize;
+
+    private final Map<String, Instant> spent = new ConcurrentHashMap<>();
+    private volatile BloomFilter spentFilter;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             JwtService jwtService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reuseCounter = Counter.builder("auth.refresh.reuse")
+                .description("Refresh tokens presented after they were used or revoked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issues the first token of a new family, at login or registration.
+     */
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    public String issue(User user, String familyId) {
+        Instant now = Instant.now();
+        String jti = UUID.randomUUID().toString();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(jti)
+                .familyId(familyId)
+                .userId(user.getId())
+                .issuedAt(now)
+                .expiresAt(now.plusMillis(jwtService.getRefreshExpirationMs()))
+                .build());
+        return jwtService.generateRefreshToken(user, jti, familyId);
+    }
+
+    /**
+     * Marks the token as used, or revokes its family and fails when it was already used, revoked or never issued.
+     * Must run inside the caller's transaction, which then issues the replacement with {@link #issue(User, String)}.
+     */
+    public void consume(String jti, String familyId) {
+        Instant now = Instant.now();
+        if (isSpent(jti) || refreshTokenRepository.markUsed(jti, familyId, now) == 0) {
+            reuseCounter.increment();
+            revokeFamily(familyId);
+            throw new InvalidCredentialsException("Refresh token inválido, revocado o ya utilizado. Inicia sesión de nuevo.");
+        }
+        Instant expiresAt = now.plusMillis(jwtService.getRefreshExpirationMs());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSpent(jti, expiresAt);
+                }
+            });
+        } else {
+            markSpent(jti, expiresAt);
+        }
+    }
+
+    public void revokeFamily(String familyId) {
+        List<RefreshToken> family = independentTransaction.execute(status -> {
+            refreshTokenRepository.revokeFamily(familyId, Instant.now());
+            return refreshTokenRepository.findByFamilyId(familyId);
+        });
+        if (family != null) {
+            family.forEach(token -> markSpent(token.getId(), token.getExpiresAt()));
+        }
+    }
+
+    private boolean isSpent(String jti) {
+        BloomFilter filter = spentFilter;
+        return (filter == null || filter.mightContain(jti)) && spent.containsKey(jti);
+    }
+
+    private synchronized void markSpent(String jti, Instant expiresAt) {
+        spent.put(jti, expiresAt);
+        if (spentFilter != null) {
+            spentFilter.add(jti);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            Instant now = Instant.now();
+            String after = "";
+            while (true) {
+                List<RefreshToken> batch = refreshTokenRepository.findSpentAfter(after, now, PageRequest.of(0, batchSize));
+                batch.forEach(token -> spent.put(token.getId(), token.getExpiresAt()));
+                if (batch.size() < batchSize) {
+                    break;
+                }
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not load spent refresh tokens: {}", e.getMostSpecificCause().getMessage());
+        }
+        rebuildFilter();
+    }
+
+    @Scheduled(cron = "${app.auth.refresh.purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        try {
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> {
+                    List<String> ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+                    return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIds(ids);
+                });
+                int count = deleted != null ? deleted : 0;
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Refresh token purge failed: {}", e.getMostSpecificCause().getMessage());
+        }
+        spent.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        rebuildFilter();
+        if (total > 0) {
+            logger.info("Purged {} expired refresh tokens.", total);
+        }
+    }
+
+    // Bloom filters cannot forget, so expired ids are dropped by building a new one sized for the current set
+    private synchronized void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(bloomExpectedEntries, spent.size() * 2L), bloomFalsePositiveRate);
+        spent.keySet().forEach(filter::add);
+        spentFilter = filter;
+    }
+}
@@ -0,0 +1,210 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.event.ReservationsArchivedEvent;
+import com.backend.IMonitoring.model.ArchivedReservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves reservations that ended before the retention cutoff (the first day of the month {@code retention-months} ago)
+ * from {@code reservations} to {@code reservations_archive}. Each chunk is one statement in its own transaction: a
+ * data-modifying CTE deletes the rows, skipping locked ones, and inserts them with their user, classroom and building
+ * names resolved, so the hot table stays small without blocking writers. Listings only read the archive when their
+ * date filter reaches back to {@link #latestArchivedEnd()}.
+ */
+@Service
+public class ReservationArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationArchiver.class);
+
+    private static final String ARCHIVE_CHUNK_SQL =
+            "WITH moved AS (" +
+            "  DELETE FROM reservations WHERE id IN (" +
+            "    SELECT id FROM reservations WHERE end_time < ? ORDER BY end_time LIMIT ? FOR UPDATE SKIP LOCKED)" +
+            "  RETURNING id, purpose, start_time, end_time, status, created_at, user_id, classroom_id, series_id) " +
+            "INSERT INTO reservations_archive (id, purpose, start_time, end_time, status, created_at, user_id, user_name, " +
+            "  user_email, user_role, classroom_id, classroom_name, classroom_type, building_name, series_id, archived_at) " +
+            "SELECT m.id, m.purpose, m.start_time, m.end_time, m.status, m.created_at, m.user_id, u.name, u.email, u.role, " +
+            "  m.classroom_id, c.name, c.type, b.name, m.series_id, now() " +
+            "FROM moved m JOIN users u ON u.id = m.user_id JOIN classroom c ON c.id = m.classroom_id " +
+            "LEFT JOIN building b ON b.id = c.building_id " +
+            "RETURNING id, classroom_id, user_id, start_time, end_time, status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter archivedCounter;
+
+    @Value("${app.reservations.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservations.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${app.reservations.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.time-zone:}")
+    private String timeZone;
+
+    private volatile Instant latestArchivedEnd;
+
+    public ReservationArchiver(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ArchivedReservationRepository archivedReservationRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.archivedCounter = Counter.builder("reservations.archive.rows")
+                .description("Reservations moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshBoundary() {
+        try {
+            latestArchivedEnd = archivedReservationRepository.findLatestEndTime();
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the reservation archive boundary: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * End time of the most recent archived reservation, or null when nothing has been archived.
+     */
+    public Instant latestArchivedEnd() {
+        return latestArchivedEnd;
+    }
+
+    /**
+     * Whether a listing whose reservations must end at or after {@code startDate} can match archived rows.
+     */
+    public boolean reaches(Instant startDate) {
+        Instant boundary = latestArchivedEnd;
+        return startDate != null && boundary != null && !startDate.isAfter(boundary);
+    }
+
+    @Scheduled(cron = "${app.reservations.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(product)) {
+                logger.info("Reservation archiving skipped: database is {}.", product);
+                return;
+            }
+            int archived = archiveBefore(cutoff());
+            if (archived > 0) {
+                logger.info("Archived {} reservations that ended before {}.", archived, cutoff());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Reservation archiving failed: {}", e.getMostSpecificCause().getMessage());
+        } finally {
+            refreshBoundary();
+        }
+    }
+
+    private int archiveBefore(Instant cutoff) {
+        int total = 0;
+        while (true) {
+            List<ReservationSnapshot> moved = transactionTemplate.execute(status -> {
+                List<ReservationSnapshot> chunk = jdbcTemplate.query(ARCHIVE_CHUNK_SQL, (rs, rowNum) -> new ReservationSnapshot(
+                        rs.getString("id"),
+                        rs.getString("classroom_id"),
+                        rs.getString("user_id"),
+                        rs.getTimestamp("start_time").toInstant(),
+                        rs.getTimestamp("end_time").toInstant(),
+                        ReservationStatus.valueOf(rs.getString("status"))), Timestamp.from(cutoff), chunkSize);
+                if (!chunk.isEmpty()) {
+                    eventPublisher.publishEvent(new ReservationsArchivedEvent(chunk));
+                }
+                return chunk;
+            });
+            int count = moved != null ? moved.size() : 0;
+            total += count;
+            archivedCounter.increment(count);
+            if (count < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    private Instant cutoff() {
+        ZoneId zone = timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+        return LocalDate.now(zone).withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay(zone).toInstant();
+    }
+
+    public List<ReservationRow> findRows(Specification<ArchivedReservation> spec, Sort sort, int limit) {
+        Sort archiveSort = archiveSort(sort);
+        return archivedReservationRepository.findBy(spec, query -> query.sortBy(archiveSort).limit(limit).all())
+                .stream()
+                .map(ArchivedReservation::toRow)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Archived rows as a lazily fetched stream, for exports; entities are read, so callers clear the context as they go.
+     */
+    public Stream<ReservationRow> streamRows(Specification<ArchivedReservation> spec, Sort sort) {
+        Sort archiveSort = archiveSort(sort);
+        return archivedReservationRepository.findBy(spec, query -> query.sortBy(archiveSort).stream())
+                .map(ArchivedReservation::toRow);
+    }
+
+    public long count(Specification<ArchivedReservation> spec) {
+        return archivedReservationRepository.count(spec);
+    }
+
+    // Listing sort properties navigate Reservation associations; the archive has them flattened
+    private static Sort archiveSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String property = switch (order.getProperty()) {
+                case "user.id" -> "userId";
+                case "user.name" -> "userName";
+                case "user.email" -> "userEmail";
+                case "classroom.id" -> "classroomId";
+                case "classroom.name" -> "classroomName";
+                case "classroom.type" -> "classroomType";
+                case "classroom.building.name" -> "buildingName";
+                default -> order.getProperty();
+            };
+            orders.add(order.withProperty(property));
+        }
+        return Sort.by(orders);
+    }
+}
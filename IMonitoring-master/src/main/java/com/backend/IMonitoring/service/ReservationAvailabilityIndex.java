@@ -0,0 +1,218 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.event.ReservationsArchivedEvent;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.utils.IntervalTree;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory interval tree of the PENDIENTE/CONFIRMADA reservations of every classroom.
+ * It is rebuilt from the database at startup and kept current from {@link ReservationChangedEvent}s after commit,
+ * so overlap checks on the write path no longer need a query. Until it is ready callers must fall back to the repository.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationAvailabilityIndex.class);
+
+    private final ReservationRepository reservationRepository;
+
+    @Value("${app.availability.index.enabled:true}")
+    private boolean enabled;
+
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    private static final class ClassroomIntervals {
+        final IntervalTree tree = new IntervalTree();
+        long stamp = STAMPS.incrementAndGet();
+    }
+
+    private volatile Map<String, ClassroomIntervals> trees = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    private final Object rebuildMonitor = new Object();
+    private List<ReservationChangedEvent> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Reservation availability index disabled; overlap checks will query the database.");
+            return;
+        }
+        synchronized (rebuildMonitor) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long started = System.currentTimeMillis();
+        Map<String, ClassroomIntervals> rebuilt = new ConcurrentHashMap<>();
+        List<ReservationSnapshot> snapshots = reservationRepository.findActiveSnapshots();
+        for (ReservationSnapshot snapshot : snapshots) {
+            add(rebuilt, snapshot);
+        }
+        synchronized (rebuildMonitor) {
+            // Events committed while the snapshot was loading are replayed; put/remove are idempotent.
+            for (ReservationChangedEvent event : pendingDuringRebuild) {
+                apply(rebuilt, event);
+            }
+            pendingDuringRebuild = null;
+            trees = rebuilt;
+            ready = true;
+        }
+        logger.info("Reservation availability index built with {} intervals across {} classrooms in {} ms.",
+                snapshots.size(), rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    // Runs before other after-commit listeners so views derived from the index never see it lagging behind the event
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        synchronized (rebuildMonitor) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+        apply(trees, event);
+    }
+
+    // Archived reservations have ended, so they simply leave the index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReservationsArchived(ReservationsArchivedEvent event) {
+        event.reservations().forEach(snapshot -> onReservationChanged(ReservationChangedEvent.deleted(snapshot)));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether [start, end) overlaps an active reservation of the classroom other than {@code excludeReservationId}.
+     */
+    public boolean hasConflict(String classroomId, Instant start, Instant end, String excludeReservationId) {
+        ClassroomIntervals intervals = trees.get(classroomId);
+        if (intervals == null) {
+            return false;
+        }
+        synchronized (intervals) {
+            return intervals.tree.overlaps(start.toEpochMilli(), end.toEpochMilli(), excludeReservationId);
+        }
+    }
+
+    /**
+     * Active intervals of the classroom overlapping [from, to), ordered by start.
+     */
+    public List<IntervalTree.Interval> intervals(String classroomId, Instant from, Instant to) {
+        ClassroomIntervals intervals = trees.get(classroomId);
+        if (intervals == null) {
+            return Collections.emptyList();
+        }
+        synchronized (intervals) {
+            return intervals.tree.overlapping(from.toEpochMilli(), to.toEpochMilli());
+        }
+    }
+
+    /**
+     * Changes whenever the classroom's intervals change (including full rebuilds), so derived views can detect staleness.
+     */
+    public long stamp(String classroomId) {
+        ClassroomIntervals intervals = trees.get(classroomId);
+        if (intervals == null) {
+            return 0L;
+        }
+        synchronized (intervals) {
+            return intervals.stamp;
+        }
+    }
+
+    /**
+     * Number of classrooms with an active reservation covering {@code instant}.
+     */
+    public long occupiedClassroomCount(Instant instant) {
+        long at = instant.toEpochMilli();
+        long occupied = 0;
+        for (ClassroomIntervals intervals : trees.values()) {
+            synchronized (intervals) {
+                if (intervals.tree.overlaps(at, at + 1, null)) {
+                    occupied++;
+                }
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Earliest reservation start or end strictly after {@code instant} over all classrooms, i.e. the next moment at which
+     * "occupied now" can change without a write. {@link Long#MAX_VALUE} if there is none.
+     */
+    public long nextBoundaryAfter(Instant instant) {
+        long at = instant.toEpochMilli();
+        long next = Long.MAX_VALUE;
+        for (ClassroomIntervals intervals : trees.values()) {
+            synchronized (intervals) {
+                next = Math.min(next, intervals.tree.nextStartAfter(at));
+                for (IntervalTree.Interval active : intervals.tree.overlapping(at, at + 1)) {
+                    next = Math.min(next, active.end());
+                }
+            }
+        }
+        return next;
+    }
+
+    public Set<String> indexedClassroomIds() {
+        return Collections.unmodifiableSet(trees.keySet());
+    }
+
+    private static void apply(Map<String, ClassroomIntervals> target, ReservationChangedEvent event) {
+        if (event.before() != null) {
+            remove(target, event.before());
+        }
+        if (event.after() != null) {
+            add(target, event.after());
+        }
+    }
+
+    private static void add(Map<String, ClassroomIntervals> target, ReservationSnapshot snapshot) {
+        if (!snapshot.isActive() || !snapshot.endTime().isAfter(snapshot.startTime())) {
+            return;
+        }
+        ClassroomIntervals intervals = target.computeIfAbsent(snapshot.classroomId(), id -> new ClassroomIntervals());
+        synchronized (intervals) {
+            intervals.tree.put(snapshot.id(), snapshot.startTime().toEpochMilli(), snapshot.endTime().toEpochMilli());
+            intervals.stamp = STAMPS.incrementAndGet();
+        }
+    }
+
+    private static void remove(Map<String, ClassroomIntervals> target, ReservationSnapshot snapshot) {
+        ClassroomIntervals intervals = target.get(snapshot.classroomId());
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals) {
+            if (intervals.tree.remove(snapshot.id())) {
+                intervals.stamp = STAMPS.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.BulkReservationResultDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.config.ReservationOverlapConstraint;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.utils.IntervalSweep;
+import com.backend.IMonitoring.utils.IntervalTree;
+import com.backend.IMonitoring.utils.ReservationCsvParser;
+import com.backend.IMonitoring.utils.SqlStates;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports whole timetables in one transaction: classrooms and users are resolved with a few IN queries, conflicts
+ * inside the batch and against existing reservations are found with a sort-and-sweep per classroom, and accepted rows
+ * are inserted through Hibernate JDBC batching.
+ */
+@Service
+public class ReservationImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationImportService.class);
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private ClassroomRepository classroomRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationAvailabilityIndex availabilityIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ClassroomWriteLocks classroomWriteLocks;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.jpa.batch-size:500}")
+    private int batchSize;
+
+    private static final class Candidate {
+        final int row;
+        final ReservationRequestDTO request;
+        final long start;
+        final long end;
+        final ReservationStatus status;
+        Classroom classroom;
+        User user;
+        String rejection;
+        Reservation saved;
+
+        Candidate(int row, ReservationRequestDTO request, boolean privileged) {
+            this.row = row;
+            this.request = request;
+            this.start = request.getStartTime().toEpochMilli();
+            this.end = request.getEndTime().toEpochMilli();
+            this.status = privileged
+                    ? (request.getStatus() != null ? request.getStatus() : ReservationStatus.CONFIRMADA)
+                    : ReservationStatus.PENDIENTE;
+        }
+
+        // Same statuses as the overlap check and the exclusion constraint: only PENDIENTE and CONFIRMADA hold a slot
+        boolean blocksSlot() {
+            return status == ReservationStatus.PENDIENTE || status == ReservationStatus.CONFIRMADA;
+        }
+    }
+
+    @Transactional
+    public BulkReservationResultDTO importCsv(String csv, User currentUser) {
+        List<ReservationCsvParser.ParsedRow> parsed = ReservationCsvParser.parse(csv);
+        List<ReservationRequestDTO> requests = new ArrayList<>(parsed.size());
+        Map<Integer, String> parseErrors = new HashMap<>();
+        for (int i = 0; i < parsed.size(); i++) {
+            requests.add(parsed.get(i).request());
+            if (parsed.get(i).error() != null) {
+                parseErrors.put(i, parsed.get(i).error());
+            }
+        }
+        return importRows(requests, parseErrors, currentUser);
+    }
+
+    @Transactional
+    public BulkReservationResultDTO importReservations(List<ReservationRequestDTO> requests, User currentUser) {
+        return importRows(requests, Map.of(), currentUser);
+    }
+
+    private BulkReservationResultDTO importRows(List<ReservationRequestDTO> requests, Map<Integer, String> preRejected, User currentUser) {
+        long started = System.currentTimeMillis();
+        BulkReservationResultDTO.RowResult[] results = new BulkReservationResultDTO.RowResult[requests.size()];
+        List<Candidate> candidates = new ArrayList<>();
+        boolean privileged = currentUser.getRole() == Rol.ADMIN || currentUser.getRole() == Rol.COORDINADOR;
+
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequestDTO request = requests.get(i);
+            String error = preRejected.containsKey(i) ? preRejected.get(i) : validate(request);
+            if (error != null) {
+                results[i] = new BulkReservationResultDTO.RowResult(i + 1, false, null, error);
+            } else {
+                candidates.add(new Candidate(i + 1, request, privileged));
+            }
+        }
+
+        resolveReferences(candidates, currentUser);
+        Map<String, List<Candidate>> byClassroom = candidates.stream()
+                .filter(c -> c.rejection == null)
+                .collect(Collectors.groupingBy(c -> c.classroom.getId()));
+        classroomWriteLocks.lockUntilCompletion(byClassroom.keySet());
+        Map<String, List<IntervalTree.Interval>> existing = loadExistingIntervals(byClassroom);
+        for (Map.Entry<String, List<Candidate>> entry : byClassroom.entrySet()) {
+            sweep(entry.getValue(), existing.getOrDefault(entry.getKey(), List.of()));
+        }
+
+        List<Candidate> accepted = candidates.stream().filter(c -> c.rejection == null).collect(Collectors.toList());
+        try {
+            insert(accepted);
+        } catch (RuntimeException e) {
+            // The sweep saw a consistent view; a concurrent booking committed in between is caught by the exclusion constraint.
+            if (SqlStates.hasSqlState(e, ReservationOverlapConstraint.EXCLUSION_VIOLATION_SQL_STATE)) {
+                throw new InvalidReservationException("Otra reserva ocupó una de las franjas durante la importación. No se ha guardado ninguna fila; vuelva a intentarlo.");
+            }
+            throw e;
+        }
+
+        int acceptedCount = 0;
+        for (Candidate candidate : candidates) {
+            boolean ok = candidate.rejection == null;
+            if (ok) acceptedCount++;
+            results[candidate.row - 1] = new BulkReservationResultDTO.RowResult(
+                    candidate.row, ok, ok ? candidate.saved.getId() : null, ok ? null : candidate.rejection);
+        }
+        logger.info("Bulk reservation import by {}: {} rows, {} accepted, {} rejected in {} ms.",
+                currentUser.getEmail(), requests.size(), acceptedCount, requests.size() - acceptedCount, System.currentTimeMillis() - started);
+        return BulkReservationResultDTO.builder()
+                .total(requests.size())
+                .accepted(acceptedCount)
+                .rejected(requests.size() - acceptedCount)
+                .rows(Arrays.asList(results))
+                .build();
+    }
+
+    private String validate(ReservationRequestDTO request) {
+        if (request == null) {
+            return "Fila vacía.";
+        }
+        if (request.getClassroomId() == null || request.getClassroomId().isBlank()) {
+            return "El ID del aula es obligatorio.";
+        }
+        if (request.getStartTime() == null || request.getEndTime() == null) {
+            return "Las horas de inicio y fin son obligatorias.";
+        }
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            return "La hora de fin debe ser posterior a la hora de inicio.";
+        }
+        if (request.getPurpose() == null || request.getPurpose().isBlank()) {
+            return "El propósito es obligatorio.";
+        }
+        return null;
+    }
+
+    private void resolveReferences(List<Candidate> candidates, User currentUser) {
+        Set<String> classroomIds = candidates.stream().map(c -> c.request.getClassroomId()).collect(Collectors.toSet());
+        Set<String> userIds = candidates.stream().map(c -> c.request.getUserId()).filter(id -> id != null).collect(Collectors.toSet());
+        Map<String, Classroom> classrooms = findAllByIdInChunks(classroomIds, classroomRepository::findAllById, Classroom::getId);
+        Map<String, User> users = findAllByIdInChunks(userIds, userRepository::findAllById, User::getId);
+
+        for (Candidate candidate : candidates) {
+            candidate.classroom = classrooms.get(candidate.request.getClassroomId());
+            if (candidate.classroom == null) {
+                candidate.rejection = "Aula no encontrada con ID: " + candidate.request.getClassroomId();
+                continue;
+            }
+            if (candidate.request.getUserId() == null) {
+                candidate.user = currentUser;
+            } else {
+                candidate.user = users.get(candidate.request.getUserId());
+                if (candidate.user == null) {
+                    candidate.rejection = "Usuario especificado para la reserva no encontrado con ID: " + candidate.request.getUserId();
+                }
+            }
+        }
+    }
+
+    private static <T> Map<String, T> findAllByIdInChunks(Set<String> ids, Function<List<String>, List<T>> finder, Function<T, String> idOf) {
+        Map<String, T> found = new HashMap<>();
+        List<String> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += IN_CHUNK_SIZE) {
+            for (T entity : finder.apply(all.subList(from, Math.min(all.size(), from + IN_CHUNK_SIZE)))) {
+                found.put(idOf.apply(entity), entity);
+            }
+        }
+        return found;
+    }
+
+    private Map<String, List<IntervalTree.Interval>> loadExistingIntervals(Map<String, List<Candidate>> byClassroom) {
+        Map<String, List<IntervalTree.Interval>> existing = new HashMap<>();
+        if (byClassroom.isEmpty()) {
+            return existing;
+        }
+        long minStart = Long.MAX_VALUE;
+        long maxEnd = Long.MIN_VALUE;
+        for (List<Candidate> group : byClassroom.values()) {
+            for (Candidate candidate : group) {
+                minStart = Math.min(minStart, candidate.start);
+                maxEnd = Math.max(maxEnd, candidate.end);
+            }
+        }
+        Instant from = Instant.ofEpochMilli(minStart);
+        Instant to = Instant.ofEpochMilli(maxEnd);
+        if (availabilityIndex.isReady()) {
+            for (String classroomId : byClassroom.keySet()) {
+                existing.put(classroomId, availabilityIndex.intervals(classroomId, from, to));
+            }
+            return existing;
+        }
+        List<String> classroomIds = new ArrayList<>(byClassroom.keySet());
+        for (int i = 0; i < classroomIds.size(); i += IN_CHUNK_SIZE) {
+            List<ReservationSnapshot> snapshots = reservationRepository.findActiveSnapshotsInRange(
+                    classroomIds.subList(i, Math.min(classroomIds.size(), i + IN_CHUNK_SIZE)), from, to);
+            for (ReservationSnapshot snapshot : snapshots) {
+                existing.computeIfAbsent(snapshot.classroomId(), id -> new ArrayList<>())
+                        .add(new IntervalTree.Interval(snapshot.id(), snapshot.startTime().toEpochMilli(), snapshot.endTime().toEpochMilli()));
+            }
+        }
+        existing.values().forEach(list -> list.sort(Comparator.comparingLong(IntervalTree.Interval::start)));
+        return existing;
+    }
+
+    /**
+     * Candidates are visited by start time. A blocking candidate is rejected if it overlaps an existing interval or an
+     * already accepted blocking candidate of the same batch (running max end). RECHAZADA and CANCELADA rows, which only
+     * privileged users can import, neither conflict nor hold their slot.
+     */
+    private static void sweep(List<Candidate> group, List<IntervalTree.Interval> existing) {
+        group.sort(Comparator.comparingLong((Candidate c) -> c.start).thenComparingInt(c -> c.row));
+        IntervalSweep existingSweep = new IntervalSweep(existing);
+
+        long acceptedMaxEnd = Long.MIN_VALUE;
+        Candidate lastAccepted = null;
+        for (Candidate candidate : group) {
+            if (!candidate.blocksSlot()) {
+                continue;
+            }
+            if (existingSweep.overlaps(candidate.start, candidate.end)) {
+                candidate.rejection = "El aula no está disponible en el horario solicitado: se solapa con una reserva PENDIENTE o CONFIRMADA existente.";
+            } else if (acceptedMaxEnd > candidate.start) {
+                candidate.rejection = "Se solapa con la fila " + lastAccepted.row + " del mismo lote.";
+            } else if (candidate.end > acceptedMaxEnd) {
+                acceptedMaxEnd = candidate.end;
+                lastAccepted = candidate;
+            }
+        }
+    }
+
+    private void insert(List<Candidate> accepted) {
+        LocalDateTime now = LocalDateTime.now();
+        int pending = 0;
+        for (Candidate candidate : accepted) {
+            Reservation reservation = new Reservation();
+            reservation.setPurpose(candidate.request.getPurpose());
+            reservation.setStartTime(candidate.request.getStartTime());
+            reservation.setEndTime(candidate.request.getEndTime());
+            reservation.setClassroom(candidate.classroom);
+            reservation.setUser(candidate.user);
+            reservation.setCreatedAt(now);
+            reservation.setStatus(candidate.status);
+            entityManager.persist(reservation);
+            candidate.saved = reservation;
+            eventPublisher.publishEvent(ReservationChangedEvent.created(ReservationSnapshot.of(reservation)));
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,417 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.config.ReservationOverlapConstraint;
+import com.backend.IMonitoring.dto.ReservationResponseDTO;
+import com.backend.IMonitoring.dto.ReservationSeriesRequestDTO;
+import com.backend.IMonitoring.dto.ReservationSeriesResponseDTO;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
+import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.utils.IntervalSweep;
+import com.backend.IMonitoring.utils.IntervalTree;
+import com.backend.IMonitoring.utils.SqlStates;
+import com.backend.IMonitoring.utils.WeeklyRecurrence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ReservationSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSeriesService.class);
+    private static final int MAX_REPORTED_CONFLICTS = 5;
+
+    @Autowired
+    private ReservationSeriesRepository seriesRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private ClassroomRepository classroomRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationAvailabilityIndex availabilityIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ClassroomWriteLocks classroomWriteLocks;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reservations.series.max-occurrences:500}")
+    private int maxOccurrences;
+
+    @Value("${app.time-zone:}")
+    private String defaultTimeZone;
+
+    @Value("${app.jpa.batch-size:500}")
+    private int batchSize;
+
+    @Transactional
+    public ReservationSeriesResponseDTO createSeries(ReservationSeriesRequestDTO dto, User currentUser) {
+        User owner = resolveOwner(dto.getUserId(), currentUser);
+        Classroom classroom = classroomRepository.findById(dto.getClassroomId())
+                .orElseThrow(() -> new ResourceNotFoundException("Aula no encontrada con ID: " + dto.getClassroomId()));
+
+        ReservationSeries series = new ReservationSeries();
+        series.setUser(owner);
+        series.setCreatedAt(LocalDateTime.now());
+        applyRule(series, dto, classroom);
+
+        List<WeeklyRecurrence.Occurrence> occurrences = expand(series, null);
+        classroomWriteLocks.lockUntilCompletion(classroom.getId());
+        checkConflicts(classroom, occurrences, Collections.emptySet());
+
+        seriesRepository.save(series);
+        List<Reservation> created = persistOccurrences(series, occurrences, initialStatus(dto.getStatus(), currentUser));
+        logger.info("Reservation series {} created with {} occurrences in classroom {} by {}",
+                series.getId(), created.size(), classroom.getName(), currentUser.getEmail());
+        return convertToDTO(series, created);
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationSeriesResponseDTO getSeries(String seriesId, User currentUser) {
+        ReservationSeries series = findSeries(seriesId);
+        checkCanView(series, currentUser);
+        return convertToDTO(series, reservationRepository.findBySeriesId(seriesId, Sort.by(Sort.Direction.ASC, "startTime")));
+    }
+
+    /**
+     * Cancels every PENDIENTE/CONFIRMADA occurrence that has not started yet with one set-based UPDATE.
+     */
+    @Transactional
+    public ReservationSeriesResponseDTO cancelSeries(String seriesId, User currentUser) {
+        ReservationSeries series = findSeries(seriesId);
+        checkCanView(series, currentUser);
+
+        List<ReservationSnapshot> future = reservationRepository.findActiveSnapshotsBySeriesFrom(seriesId, Instant.now());
+        checkCanCancel(future, currentUser);
+        classroomWriteLocks.lockUntilCompletion(future.stream().map(ReservationSnapshot::classroomId).collect(Collectors.toSet()));
+        List<String> ids = future.stream().map(ReservationSnapshot::id).collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            reservationRepository.updateStatusByIds(ids, ReservationStatus.CANCELADA);
+            for (ReservationSnapshot before : future) {
+                eventPublisher.publishEvent(ReservationChangedEvent.updated(before, new ReservationSnapshot(
+                        before.id(), before.classroomId(), before.userId(), before.startTime(), before.endTime(), ReservationStatus.CANCELADA)));
+            }
+        }
+        entityManager.clear();
+        logger.info("Reservation series {} cancelled: {} future occurrences", seriesId, ids.size());
+        return getSeries(seriesId, currentUser);
+    }
+
+    /**
+     * Replaces the occurrences that have not started yet with the expansion of the new rule. Past occurrences are kept.
+     */
+    @Transactional
+    public ReservationSeriesResponseDTO updateSeries(String seriesId, ReservationSeriesRequestDTO dto, User currentUser) {
+        ReservationSeries series = findSeries(seriesId);
+        checkCanView(series, currentUser);
+        Instant now = Instant.now();
+        List<ReservationSnapshot> replaced = reservationRepository.findActiveSnapshotsBySeriesFrom(seriesId, now);
+        checkCanReplace(replaced, currentUser);
+        Set<String> lockedClassrooms = replaced.stream().map(ReservationSnapshot::classroomId).collect(Collectors.toCollection(HashSet::new));
+        lockedClassrooms.add(series.getClassroom().getId());
+        lockedClassrooms.add(dto.getClassroomId());
+        classroomWriteLocks.lockUntilCompletion(lockedClassrooms);
+        Classroom classroom = classroomRepository.findById(dto.getClassroomId())
+                .orElseThrow(() -> new ResourceNotFoundException("Aula no encontrada con ID: " + dto.getClassroomId()));
+        if (dto.getUserId() != null && currentUser.getRole() == Rol.ADMIN) {
+            series.setUser(resolveOwner(dto.getUserId(), currentUser));
+        }
+        applyRule(series, dto, classroom);
+
+        Set<String> replacedIds = replaced.stream().map(ReservationSnapshot::id).collect(Collectors.toSet());
+        List<WeeklyRecurrence.Occurrence> occurrences = expand(series, now);
+        checkConflicts(classroom, occurrences, replacedIds);
+
+        if (!replacedIds.isEmpty()) {
+            reservationRepository.deleteByIds(replacedIds);
+            replaced.forEach(before -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(before)));
+        }
+        seriesRepository.save(series);
+        persistOccurrences(series, occurrences, initialStatus(dto.getStatus(), currentUser));
+        entityManager.flush();
+        entityManager.clear();
+        logger.info("Reservation series {} updated: {} future occurrences replaced by {}", seriesId, replacedIds.size(), occurrences.size());
+        return getSeries(seriesId, currentUser);
+    }
+
+    private void applyRule(ReservationSeries series, ReservationSeriesRequestDTO dto, Classroom classroom) {
+        if (dto.getStartTime() == null || dto.getEndTime() == null || !dto.getEndTime().isAfter(dto.getStartTime())) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (dto.getUntil() == null && dto.getCount() == null) {
+            throw new InvalidReservationException("La serie debe indicar una fecha límite (until) o un número de repeticiones (count).");
+        }
+        ZoneId zone = resolveZone(dto.getTimeZone());
+        Set<DayOfWeek> days = (dto.getDaysOfWeek() == null || dto.getDaysOfWeek().isEmpty())
+                ? EnumSet.of(dto.getStartTime().atZone(zone).getDayOfWeek())
+                : EnumSet.copyOf(dto.getDaysOfWeek());
+
+        series.setClassroom(classroom);
+        series.setPurpose(dto.getPurpose());
+        series.setFirstStartTime(dto.getStartTime());
+        series.setFirstEndTime(dto.getEndTime());
+        series.setTimeZone(zone.getId());
+        series.setDaysOfWeek(days.stream().map(DayOfWeek::name).collect(Collectors.joining(",")));
+        series.setIntervalWeeks(dto.getIntervalWeeks() != null ? dto.getIntervalWeeks() : 1);
+        series.setUntilDate(dto.getUntil());
+        series.setOccurrenceCount(dto.getCount());
+        series.setExceptionDates(dto.getExceptionDates() == null || dto.getExceptionDates().isEmpty() ? null
+                : dto.getExceptionDates().stream().map(LocalDate::toString).collect(Collectors.joining(",")));
+    }
+
+    // Occurrences are produced lazily by the recurrence; only those starting at or after notBefore are kept.
+    private List<WeeklyRecurrence.Occurrence> expand(ReservationSeries series, Instant notBefore) {
+        WeeklyRecurrence recurrence = new WeeklyRecurrence(
+                series.getFirstStartTime(), series.getFirstEndTime(), ZoneId.of(series.getTimeZone()),
+                parseDays(series.getDaysOfWeek()), series.getIntervalWeeks(),
+                series.getUntilDate(), series.getOccurrenceCount(), parseDates(series.getExceptionDates()));
+        List<WeeklyRecurrence.Occurrence> occurrences = new ArrayList<>();
+        for (WeeklyRecurrence.Occurrence occurrence : recurrence) {
+            if (notBefore != null && occurrence.start().isBefore(notBefore)) {
+                continue;
+            }
+            if (occurrences.size() == maxOccurrences) {
+                throw new InvalidReservationException("La serie supera el máximo de " + maxOccurrences + " repeticiones.");
+            }
+            occurrences.add(occurrence);
+        }
+        if (occurrences.isEmpty()) {
+            throw new InvalidReservationException("La regla de repetición no genera ninguna reserva.");
+        }
+        return occurrences;
+    }
+
+    /**
+     * One pass over the chronologically ordered occurrences against the classroom's existing intervals in the same range.
+     */
+    private void checkConflicts(Classroom classroom, List<WeeklyRecurrence.Occurrence> occurrences, Set<String> ignoredIds) {
+        Instant from = occurrences.get(0).start();
+        Instant to = occurrences.get(occurrences.size() - 1).end();
+        List<IntervalTree.Interval> existing;
+        if (availabilityIndex.isReady()) {
+            existing = availabilityIndex.intervals(classroom.getId(), from, to);
+        } else {
+            existing = reservationRepository.findActiveSnapshotsInRange(List.of(classroom.getId()), from, to).stream()
+                    .map(s -> new IntervalTree.Interval(s.id(), s.startTime().toEpochMilli(), s.endTime().toEpochMilli()))
+                    .sorted((a, b) -> Long.compare(a.start(), b.start()))
+                    .collect(Collectors.toList());
+        }
+        if (!ignoredIds.isEmpty()) {
+            existing = existing.stream().filter(i -> !ignoredIds.contains(i.id())).collect(Collectors.toList());
+        }
+        IntervalSweep sweep = new IntervalSweep(existing);
+
+        List<String> conflicts = new ArrayList<>();
+        int conflictCount = 0;
+        long previousMaxEnd = Long.MIN_VALUE;
+        for (WeeklyRecurrence.Occurrence occurrence : occurrences) {
+            long start = occurrence.start().toEpochMilli();
+            long end = occurrence.end().toEpochMilli();
+            if (sweep.overlaps(start, end) || previousMaxEnd > start) {
+                if (conflictCount++ < MAX_REPORTED_CONFLICTS) {
+                    conflicts.add(occurrence.start().toString());
+                }
+            }
+            previousMaxEnd = Math.max(previousMaxEnd, end);
+        }
+        if (conflictCount > 0) {
+            throw new InvalidReservationException(String.format(
+                    "El aula %s no está disponible para %d de las repeticiones de la serie (por ejemplo: %s).",
+                    classroom.getName(), conflictCount, String.join(", ", conflicts)));
+        }
+    }
+
+    private List<Reservation> persistOccurrences(ReservationSeries series, List<WeeklyRecurrence.Occurrence> occurrences, ReservationStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> created = new ArrayList<>(occurrences.size());
+        int pending = 0;
+        for (WeeklyRecurrence.Occurrence occurrence : occurrences) {
+            Reservation reservation = new Reservation();
+            reservation.setPurpose(series.getPurpose());
+            reservation.setStartTime(occurrence.start());
+            reservation.setEndTime(occurrence.end());
+            reservation.setClassroom(series.getClassroom());
+            reservation.setUser(series.getUser());
+            reservation.setStatus(status);
+            reservation.setCreatedAt(now);
+            reservation.setSeries(series);
+            entityManager.persist(reservation);
+            created.add(reservation);
+            eventPublisher.publishEvent(ReservationChangedEvent.created(ReservationSnapshot.of(reservation)));
+            if (++pending == batchSize) {
+                flushChecked();
+                pending = 0;
+            }
+        }
+        flushChecked();
+        return created;
+    }
+
+    private void flushChecked() {
+        try {
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            if (SqlStates.hasSqlState(e, ReservationOverlapConstraint.EXCLUSION_VIOLATION_SQL_STATE)) {
+                throw new InvalidReservationException("Otra reserva ocupó una de las franjas de la serie mientras se guardaba; vuelva a intentarlo.");
+            }
+            throw e;
+        }
+    }
+
+    private ReservationStatus initialStatus(ReservationStatus requested, User currentUser) {
+        if (currentUser.getRole() == Rol.ADMIN || currentUser.getRole() == Rol.COORDINADOR) {
+            return requested != null ? requested : ReservationStatus.CONFIRMADA;
+        }
+        return ReservationStatus.PENDIENTE;
+    }
+
+    private User resolveOwner(String userId, User currentUser) {
+        if (userId != null && (currentUser.getRole() == Rol.ADMIN || currentUser.getRole() == Rol.COORDINADOR)) {
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Usuario especificado para la reserva no encontrado con ID: " + userId));
+        }
+        return currentUser;
+    }
+
+    private ZoneId resolveZone(String timeZone) {
+        String zoneId = (timeZone != null && !timeZone.isBlank()) ? timeZone : defaultTimeZone;
+        if (zoneId == null || zoneId.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            throw new InvalidReservationException("Zona horaria no válida: " + zoneId);
+        }
+    }
+
+    private ReservationSeries findSeries(String seriesId) {
+        return seriesRepository.findById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("Serie de reservas no encontrada con ID: " + seriesId));
+    }
+
+    private void checkCanView(ReservationSeries series, User currentUser) {
+        boolean canView = currentUser.getRole() == Rol.ADMIN
+                || currentUser.getRole() == Rol.COORDINADOR
+                || series.getUser().getId().equals(currentUser.getId());
+        if (!canView) {
+            throw new UnauthorizedAccessException("No tiene permiso para gestionar esta serie de reservas.");
+        }
+    }
+
+    // Same rules as ReservationService.updateReservationStatus(..., CANCELADA), applied to every occurrence
+    private void checkCanCancel(List<ReservationSnapshot> occurrences, User currentUser) {
+        Map<String, Rol> ownerRoles = ownerRoles(occurrences);
+        for (ReservationSnapshot occurrence : occurrences) {
+            boolean own = occurrence.userId().equals(currentUser.getId());
+            boolean canCancel = currentUser.getRole() == Rol.ADMIN
+                    || own
+                    || (currentUser.getRole() == Rol.COORDINADOR && ownerRoles.get(occurrence.userId()) == Rol.ESTUDIANTE);
+            if (!canCancel) {
+                throw new UnauthorizedAccessException("No tiene permiso para cancelar las reservas de esta serie.");
+            }
+        }
+    }
+
+    // Same rules as ReservationService.updateReservation, applied to every occurrence that would be replaced
+    private void checkCanReplace(List<ReservationSnapshot> occurrences, User currentUser) {
+        if (currentUser.getRole() == Rol.ADMIN) {
+            return;
+        }
+        Map<String, Rol> ownerRoles = ownerRoles(occurrences);
+        for (ReservationSnapshot occurrence : occurrences) {
+            boolean ownPending = occurrence.userId().equals(currentUser.getId()) && occurrence.status() == ReservationStatus.PENDIENTE;
+            boolean studentByCoordinator = currentUser.getRole() == Rol.COORDINADOR
+                    && ownerRoles.get(occurrence.userId()) == Rol.ESTUDIANTE;
+            if (!ownPending && !studentByCoordinator) {
+                throw new UnauthorizedAccessException("No tiene permiso para modificar esta serie: contiene reservas que ya no están en un estado editable para usted.");
+            }
+        }
+    }
+
+    private Map<String, Rol> ownerRoles(List<ReservationSnapshot> occurrences) {
+        Set<String> userIds = occurrences.stream().map(ReservationSnapshot::userId).collect(Collectors.toSet());
+        Map<String, Rol> roles = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> roles.put(user.getId(), user.getRole()));
+        return roles;
+    }
+
+    private static Set<DayOfWeek> parseDays(String days) {
+        Set<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
+        if (days != null && !days.isEmpty()) {
+            Arrays.stream(days.split("\\s*,\\s*")).map(DayOfWeek::valueOf).forEach(result::add);
+        }
+        return result;
+    }
+
+    private static Set<LocalDate> parseDates(String dates) {
+        Set<LocalDate> result = new HashSet<>();
+        if (dates != null && !dates.isEmpty()) {
+            Arrays.stream(dates.split("\\s*,\\s*")).map(LocalDate::parse).forEach(result::add);
+        }
+        return result;
+    }
+
+    private ReservationSeriesResponseDTO convertToDTO(ReservationSeries series, List<Reservation> occurrences) {
+        List<ReservationResponseDTO> occurrenceDTOs = occurrences.stream()
+                .map(reservationService::convertToDTO)
+                .collect(Collectors.toList());
+        return ReservationSeriesResponseDTO.builder()
+                .id(series.getId())
+                .classroomId(series.getClassroom().getId())
+                .userId(series.getUser().getId())
+                .purpose(series.getPurpose())
+                .firstStartTime(series.getFirstStartTime())
+                .firstEndTime(series.getFirstEndTime())
+                .timeZone(series.getTimeZone())
+                .daysOfWeek(new ArrayList<>(parseDays(series.getDaysOfWeek())))
+                .intervalWeeks(series.getIntervalWeeks())
+                .until(series.getUntilDate())
+                .count(series.getOccurrenceCount())
+                .exceptionDates(parseDates(series.getExceptionDates()).stream().sorted().collect(Collectors.toList()))
+                .createdAt(series.getCreatedAt())
+                .occurrences(occurrenceDTOs)
+                .build();
+    }
+}
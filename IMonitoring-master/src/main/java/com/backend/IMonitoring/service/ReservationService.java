@@ -1,7 +1,12 @@
 package com.backend.IMonitoring.service;
 
+import com.backend.IMonitoring.config.ReservationOverlapConstraint;
+import com.backend.IMonitoring.dto.CursorPageDTO;
 import com.backend.IMonitoring.dto.ReservationRequestDTO;
 import com.backend.IMonitoring.dto.ReservationResponseDTO;
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
 import com.backend.IMonitoring.exceptions.InvalidReservationException;
 import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
@@ -9,27 +14,49 @@ import com.backend.IMonitoring.model.*;
 import com.backend.IMonitoring.repository.ClassroomRepository;
 import com.backend.IMonitoring.repository.ReservationRepository;
 import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.utils.ReservationCursor;
+import com.backend.IMonitoring.utils.SqlStates;
+import com.backend.IMonitoring.utils.ReservationExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReservationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+    private static final Set<String> KEYSET_SORT_FIELDS = Set.of("startTime", "endTime", "createdAt");
+    // Sort properties that can be compared on ReservationRow when hot and archived rows are merged in memory
+    private static final Set<String> ROW_SORT_FIELDS = Set.of("startTime", "endTime", "createdAt", "id", "purpose", "status",
+            "user.name", "user.email", "classroom.name", "classroom.type", "classroom.building.name");
 
     @Autowired
     private ReservationRepository reservationRepository;
@@ -37,6 +64,31 @@ public class ReservationService {
     private UserRepository userRepository;
     @Autowired
     private ClassroomRepository classroomRepository;
+    @Autowired
+    private ReservationAvailabilityIndex availabilityIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ReservationOverlapConstraint overlapConstraint;
+    @Autowired
+    private ClassroomWriteLocks classroomWriteLocks;
+    @Autowired
+    private ReservationArchiver reservationArchiver;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reservations.overlap-precheck.enabled:true}")
+    private boolean overlapPrecheckEnabled;
+
+    @Value("${app.reservations.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${app.reservations.export.clear-every:1000}")
+    private int exportClearEvery;
 
     @Transactional
     public ReservationResponseDTO createReservation(ReservationRequestDTO reservationDTO, User currentUser) {
@@ -73,16 +125,8 @@ public class ReservationService {
         logger.info("Reservation status set to: {} for user {}", reservation.getStatus(), userToAssign.getEmail());
 
         // Check for overlapping reservations with PENDING or CONFIRMADA status
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-                reservation.getClassroom().getId(),
-                reservation.getStartTime(),
-                reservation.getEndTime()
-        );
-        overlappingReservations = overlappingReservations.stream()
-                .filter(r -> (r.getStatus() == ReservationStatus.PENDIENTE || r.getStatus() == ReservationStatus.CONFIRMADA))
-                .collect(Collectors.toList());
-
-        if (!overlappingReservations.isEmpty()) {
+        classroomWriteLocks.lockUntilCompletion(classroom.getId());
+        if (hasOverlappingReservation(classroom.getId(), reservation.getStartTime(), reservation.getEndTime(), null)) {
             logger.warn("Overlapping reservation found for classroom {} from {} to {}",
                     classroom.getName(), reservation.getStartTime(), reservation.getEndTime());
             throw new InvalidReservationException(
@@ -92,8 +136,9 @@ public class ReservationService {
         }
         logger.info("No overlapping reservations found. Proceeding to save.");
 
-        Reservation savedReservation = reservationRepository.save(reservation);
+        Reservation savedReservation = saveAndFlushChecked(reservation);
         logger.info("Reservation saved successfully with ID: {} and status: {}", savedReservation.getId(), savedReservation.getStatus());
+        eventPublisher.publishEvent(ReservationChangedEvent.created(ReservationSnapshot.of(savedReservation)));
         return convertToDTO(savedReservation);
     }
 
@@ -106,6 +151,131 @@ public class ReservationService {
         logger.debug("Fetching all reservations with filters - classroomId: {}, userId: {}, status: {}, startDate: {}, endDate: {}, sortField: {}, sortDirection: {}, page: {}, size: {}",
             classroomId, userId, status, startDate, endDate, sortField, sortDirection, page, size);
 
+        Specification<Reservation> spec = adminFilterSpec(classroomId, userId, status, startDate, endDate);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection(sortDirection), sortProperty(sortField)));
+        Page<ReservationRow> reservationPage = reservationArchiver.reaches(startDate)
+                ? findRowsWithArchive(spec, archiveFilterSpec(classroomId, userId, status, startDate, endDate), pageable)
+                : reservationRepository.findRows(spec, pageable);
+
+        logger.debug("Found {} reservations (total elements: {}) after applying spec, sort, and pagination.", reservationPage.getNumberOfElements(), reservationPage.getTotalElements());
+        return reservationPage.map(ReservationRow::toResponseDTO);
+    }
+
+    /**
+     * Keyset variant of {@link #getAllReservations}: seeks past the cursor instead of skipping rows and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReservationResponseDTO> getAllReservationsAfter(
+            String classroomId, String userId, ReservationStatus status,
+            Instant startDate, Instant endDate,
+            String sortField, String sortDirection,
+            String after, int size) {
+        Specification<Reservation> spec = adminFilterSpec(classroomId, userId, status, startDate, endDate);
+        Specification<ArchivedReservation> archiveSpec = reservationArchiver.reaches(startDate)
+                ? archiveFilterSpec(classroomId, userId, status, startDate, endDate) : null;
+        return seekPage(spec, archiveSpec, sortField, sortDirection, after, size);
+    }
+
+    public Page<ReservationResponseDTO> getFilteredUserReservations(
+        String userId, ReservationStatus status,
+        String sortField, String sortDirection,
+        int page, int size, boolean upcomingOnly,
+        Instant startDate, Instant endDate, User currentUser) {
+
+        Specification<Reservation> spec = userFilterSpec(userId, status, upcomingOnly, startDate, endDate, currentUser);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection(sortDirection), sortProperty(sortField)));
+        Page<ReservationRow> rows = !upcomingOnly && reservationArchiver.reaches(startDate)
+                ? findRowsWithArchive(spec, archiveFilterSpec(null, userId, status, startDate, endDate), pageable)
+                : reservationRepository.findRows(spec, pageable);
+        return rows.map(ReservationRow::toResponseDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReservationResponseDTO> getFilteredUserReservationsAfter(
+            String userId, ReservationStatus status,
+            String sortField, String sortDirection,
+            String after, int size, boolean upcomingOnly,
+            Instant startDate, Instant endDate, User currentUser) {
+        Specification<Reservation> spec = userFilterSpec(userId, status, upcomingOnly, startDate, endDate, currentUser);
+        Specification<ArchivedReservation> archiveSpec = !upcomingOnly && reservationArchiver.reaches(startDate)
+                ? archiveFilterSpec(null, userId, status, startDate, endDate) : null;
+        return seekPage(spec, archiveSpec, sortField, sortDirection, after, size);
+    }
+
+    /**
+     * Export of every reservation matching the admin filters. Filters and sort are validated now; the returned body
+     * later reads the rows through a forward-only cursor in its own read-only transaction and writes each one as it
+     * arrives, clearing the persistence context periodically, so memory stays flat whatever the row count.
+     */
+    public StreamingResponseBody exportReservations(
+            String classroomId, String userId, ReservationStatus status,
+            Instant startDate, Instant endDate,
+            String sortField, String sortDirection,
+            ReservationExportWriter.Format format) {
+        Specification<Reservation> spec = adminFilterSpec(classroomId, userId, status, startDate, endDate);
+        Specification<ArchivedReservation> archiveSpec = reservationArchiver.reaches(startDate)
+                ? archiveFilterSpec(classroomId, userId, status, startDate, endDate) : null;
+        Sort sort = Sort.by(sortDirection(sortDirection), sortProperty(sortField)).and(Sort.by(Sort.Direction.ASC, "id"));
+        Comparator<ReservationRow> order = archiveSpec != null ? rowComparator(sort) : null;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> {
+            ReservationExportWriter writer = ReservationExportWriter.open(format, out, objectMapper);
+            long started = System.currentTimeMillis();
+            Long written = readOnly.execute(tx -> {
+                try (Stream<ReservationRow> hot = reservationRepository.streamRows(spec, sort, exportFetchSize);
+                     Stream<ReservationRow> archived = archiveSpec != null ? reservationArchiver.streamRows(archiveSpec, sort) : Stream.empty()) {
+                    Iterator<ReservationRow> rows = archiveSpec != null
+                            ? mergeOrdered(hot.iterator(), archived.iterator(), order)
+                            : hot.iterator();
+                    long count = 0;
+                    while (rows.hasNext()) {
+                        writer.write(rows.next());
+                        if (++count % exportClearEvery == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                    return count;
+                }
+            });
+            writer.finish();
+            logger.info("Exported {} reservations as {} in {} ms.", written, format, System.currentTimeMillis() - started);
+        };
+    }
+
+    // Merges two iterators that are each sorted by the given order
+    private static Iterator<ReservationRow> mergeOrdered(Iterator<ReservationRow> first, Iterator<ReservationRow> second,
+                                                         Comparator<ReservationRow> order) {
+        return new Iterator<>() {
+            ReservationRow a = first.hasNext() ? first.next() : null;
+            ReservationRow b = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return a != null || b != null;
+            }
+
+            @Override
+            public ReservationRow next() {
+                if (a == null && b == null) {
+                    throw new NoSuchElementException();
+                }
+                ReservationRow result;
+                if (b == null || (a != null && order.compare(a, b) <= 0)) {
+                    result = a;
+                    a = first.hasNext() ? first.next() : null;
+                } else {
+                    result = b;
+                    b = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    private Specification<Reservation> adminFilterSpec(String classroomId, String userId, ReservationStatus status,
+                                                       Instant startDate, Instant endDate) {
         Specification<Reservation> spec = Specification.where(null);
 
         if (classroomId != null && !classroomId.isEmpty()) {
@@ -125,31 +295,11 @@ public class ReservationService {
         if (endDate != null) {
             spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), endDate));
         }
-
-        Sort.Direction direction = (sortDirection == null || sortDirection.equalsIgnoreCase("desc")) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        String field = (sortField == null || sortField.isEmpty()) ? "startTime" : sortField;
-
-        // Ensure sorting by nested properties works correctly
-        if ("classroomName".equals(field)) field = "classroom.name";
-        else if ("userName".equals(field)) field = "user.name";
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, field));
-        Page<Reservation> reservationPage = reservationRepository.findAll(spec, pageable);
-
-        logger.debug("Found {} reservations (total elements: {}) after applying spec, sort, and pagination.", reservationPage.getNumberOfElements(), reservationPage.getTotalElements());
-        return new PageImpl<>(
-                reservationPage.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
-                pageable,
-                reservationPage.getTotalElements()
-        );
+        return spec;
     }
 
-    public Page<ReservationResponseDTO> getFilteredUserReservations(
-        String userId, ReservationStatus status,
-        String sortField, String sortDirection,
-        int page, int size, boolean upcomingOnly,
-        Instant startDate, Instant endDate, User currentUser) {
-
+    private Specification<Reservation> userFilterSpec(String userId, ReservationStatus status, boolean upcomingOnly,
+                                                      Instant startDate, Instant endDate, User currentUser) {
         // Authorization check: User can only see their own reservations, or Admin/Coordinator can see others'
         if (!currentUser.getId().equals(userId) && !(currentUser.getRole() == Rol.ADMIN || currentUser.getRole() == Rol.COORDINADOR)) {
             throw new UnauthorizedAccessException("No tiene permiso para ver las reservas de este usuario.");
@@ -170,19 +320,164 @@ public class ReservationService {
                 spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), endDate));
             }
         }
+        return spec;
+    }
+
+    // Same filters over the flattened archive rows; only used when startDate reaches back into the archive
+    private static Specification<ArchivedReservation> archiveFilterSpec(String classroomId, String userId, ReservationStatus status,
+                                                                        Instant startDate, Instant endDate) {
+        Specification<ArchivedReservation> spec = Specification.where(null);
+        if (classroomId != null && !classroomId.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("classroomId"), classroomId));
+        }
+        if (userId != null && !userId.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("userId"), userId));
+        }
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (startDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endTime"), startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), endDate));
+        }
+        return spec;
+    }
+
+    /**
+     * Offset page over hot and archived rows: each side returns its first offset + size rows in the requested order
+     * and the two lists are merged in memory, so deep pages into history cost proportionally more.
+     */
+    private Page<ReservationRow> findRowsWithArchive(Specification<Reservation> spec, Specification<ArchivedReservation> archiveSpec,
+                                                     Pageable pageable) {
+        Sort sort = pageable.getSort().and(Sort.by(Sort.Direction.ASC, "id"));
+        int window = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        List<ReservationRow> merged = Stream.concat(
+                        reservationRepository.findRows(spec, sort, window).stream(),
+                        reservationArchiver.findRows(archiveSpec, sort, window).stream())
+                .sorted(rowComparator(sort))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(merged, pageable,
+                () -> reservationRepository.count(spec) + reservationArchiver.count(archiveSpec));
+    }
+
+    // Mirrors the database ordering: enums compare by name as they are stored as strings, nulls sort last ascending
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<ReservationRow> rowComparator(Sort sort) {
+        Comparator<ReservationRow> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            if (!ROW_SORT_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Campo de orden no soportado al incluir reservas archivadas: " + order.getProperty());
+            }
+            Comparator<ReservationRow> next = Comparator.comparing(
+                    row -> (Comparable) sortValue(row, order.getProperty()), Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isDescending() ? next.reversed() : next);
+        }
+        return comparator;
+    }
+
+    private static Sort.Direction sortDirection(String sortDirection) {
+        return (sortDirection == null || sortDirection.equalsIgnoreCase("desc")) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    // Ensure sorting by nested properties works correctly
+    private static String sortProperty(String sortField) {
+        String field = (sortField == null || sortField.isEmpty()) ? "startTime" : sortField;
+        if ("classroomName".equals(field)) field = "classroom.name";
+        else if ("userName".equals(field)) field = "user.name";
+        return field;
+    }
+
+    /**
+     * Reads one keyset page ordered by (sortField, id): fetches size + 1 rows past the cursor to learn whether another
+     * page exists, so no count query is needed.
+     */
+    private CursorPageDTO<ReservationResponseDTO> seekPage(Specification<Reservation> spec, Specification<ArchivedReservation> archiveSpec,
+                                                           String sortField, String sortDirection, String after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo.");
+        }
+        String field = (sortField == null || sortField.isEmpty()) ? "startTime" : sortField;
+        if (!KEYSET_SORT_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("La paginación por cursor solo admite ordenar por " + KEYSET_SORT_FIELDS + ".");
+        }
+        Sort.Direction direction = sortDirection(sortDirection);
+        ReservationCursor cursor = ReservationCursor.decode(after);
+        if (cursor != null) {
+            if (!field.equals(cursor.sortField())) {
+                throw new IllegalArgumentException("El cursor de paginación no corresponde al orden solicitado.");
+            }
+            spec = spec.and(seekAfter(field, cursor, direction));
+            if (archiveSpec != null) {
+                archiveSpec = archiveSpec.and(seekAfter(field, cursor, direction));
+            }
+        }
 
-        Sort.Direction directionSort = (sortDirection == null || sortDirection.equalsIgnoreCase("desc")) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        String fieldSort = (sortField == null || sortField.isEmpty()) ? "startTime" : sortField;
-        if ("classroomName".equals(fieldSort)) fieldSort = "classroom.name";
-        else if ("userName".equals(fieldSort)) fieldSort = "user.name";
+        Sort sort = Sort.by(direction, field).and(Sort.by(direction, "id"));
+        List<ReservationRow> rows = reservationRepository.findRows(spec, sort, size + 1);
+        if (archiveSpec != null) {
+            rows = Stream.concat(rows.stream(), reservationArchiver.findRows(archiveSpec, sort, size + 1).stream())
+                    .sorted(rowComparator(sort))
+                    .limit(size + 1)
+                    .collect(Collectors.toList());
+        }
+        boolean hasNext = rows.size() > size;
+        List<ReservationRow> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ReservationRow last = content.get(content.size() - 1);
+            nextCursor = new ReservationCursor(field, String.valueOf(sortValue(last, field)), last.id()).encode();
+        }
+        return CursorPageDTO.<ReservationResponseDTO>builder()
+                .content(content.stream().map(ReservationRow::toResponseDTO).collect(Collectors.toList()))
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(directionSort, fieldSort));
-        Page<Reservation> reservationPage = reservationRepository.findAll(spec, pageable);
+    private static Comparable<?> sortValue(ReservationRow row, String field) {
+        return switch (field) {
+            case "startTime" -> row.startTime();
+            case "endTime" -> row.endTime();
+            case "createdAt" -> row.createdAt();
+            case "id" -> row.id();
+            case "purpose" -> row.purpose();
+            case "status" -> row.status() != null ? row.status().name() : null;
+            case "user.name" -> row.userName();
+            case "user.email" -> row.userEmail();
+            case "classroom.name" -> row.classroomName();
+            case "classroom.type" -> row.classroomType() != null ? row.classroomType().name() : null;
+            case "classroom.building.name" -> row.buildingName();
+            default -> throw new IllegalArgumentException("Campo de orden no soportado: " + field);
+        };
+    }
+
+    private static <T> Specification<T> seekAfter(String field, ReservationCursor cursor, Sort.Direction direction) {
+        try {
+            return switch (field) {
+                case "startTime", "endTime" -> seekAfter(field, Instant.parse(cursor.value()), cursor.id(), direction);
+                case "createdAt" -> seekAfter(field, LocalDateTime.parse(cursor.value()), cursor.id(), direction);
+                default -> throw new IllegalArgumentException("Campo de orden no soportado: " + field);
+            };
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido.", e);
+        }
+    }
 
-        List<ReservationResponseDTO> dtos = reservationPage.getContent().stream()
-                                            .map(this::convertToDTO)
-                                            .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, reservationPage.getTotalElements());
+    // (field, id) < (value, id) for descending order, > for ascending; expanded because JPA criteria has no row values.
+    private static <T, Y extends Comparable<? super Y>> Specification<T> seekAfter(String field, Y value, String id, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<Y> path = root.get(field);
+            Path<String> idPath = root.get("id");
+            if (direction == Sort.Direction.DESC) {
+                return cb.or(cb.lessThan(path, value), cb.and(cb.equal(path, value), cb.lessThan(idPath, id)));
+            }
+            return cb.or(cb.greaterThan(path, value), cb.and(cb.equal(path, value), cb.greaterThan(idPath, id)));
+        };
     }
 
     @Transactional(readOnly = true)
@@ -246,8 +541,18 @@ public class ReservationService {
             throw new UnauthorizedAccessException("No tiene permiso para cambiar el estado de esta reserva de " + reservation.getStatus() + " a: " + newStatus);
         }
 
+        ReservationSnapshot before = ReservationSnapshot.of(reservation);
+        classroomWriteLocks.lockUntilCompletion(before.classroomId());
         reservation.setStatus(newStatus);
-        Reservation updatedReservation = reservationRepository.save(reservation);
+        // Re-activating a cancelled or rejected reservation must not double-book its slot
+        if (!before.isActive() && (newStatus == ReservationStatus.PENDIENTE || newStatus == ReservationStatus.CONFIRMADA)
+                && hasOverlappingReservation(before.classroomId(), reservation.getStartTime(), reservation.getEndTime(), reservation.getId())) {
+            throw new InvalidReservationException(
+                    String.format("El aula no está disponible en el horario de la reserva: %s de %s a %s. (Puede haber una reserva PENDIENTE o CONFIRMADA en esta franja).",
+                            reservation.getClassroom().getName(), reservation.getStartTime().toString(), reservation.getEndTime().toString()));
+        }
+        Reservation updatedReservation = saveAndFlushChecked(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.updated(before, ReservationSnapshot.of(updatedReservation)));
         return convertToDTO(updatedReservation);
     }
 
@@ -264,8 +569,11 @@ public class ReservationService {
             throw new InvalidReservationException("Solo se pueden cancelar reservas con estado PENDIENTE o CONFIRMADA. Estado actual: " + reservation.getStatus());
         }
 
+        ReservationSnapshot before = ReservationSnapshot.of(reservation);
+        classroomWriteLocks.lockUntilCompletion(before.classroomId());
         reservation.setStatus(ReservationStatus.CANCELADA);
         Reservation cancelledReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.updated(before, ReservationSnapshot.of(cancelledReservation)));
         return convertToDTO(cancelledReservation);
     }
 
@@ -297,6 +605,9 @@ public class ReservationService {
         if (!canUpdate) {
             throw new UnauthorizedAccessException("No tiene permiso para actualizar esta reserva o ya no está en un estado editable.");
         }
+        ReservationSnapshot before = ReservationSnapshot.of(reservation);
+        // Both rooms are locked when the reservation moves: the old one is freed and the new one is booked in this transaction
+        classroomWriteLocks.lockUntilCompletion(before.classroomId(), reservationDTO.getClassroomId());
 
         // Update Classroom if changed
         if (reservationDTO.getClassroomId() != null && !reservationDTO.getClassroomId().equals(reservation.getClassroom().getId())) {
@@ -344,24 +655,15 @@ public class ReservationService {
         }
 
         // Re-check for overlaps with the updated times/classroom
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservationsExcludingSelf(
-                reservation.getClassroom().getId(),
-                reservation.getStartTime(),
-                reservation.getEndTime(),
-                reservation.getId()
-        );
-        overlappingReservations = overlappingReservations.stream()
-                .filter(r -> (r.getStatus() == ReservationStatus.PENDIENTE || r.getStatus() == ReservationStatus.CONFIRMADA))
-                .collect(Collectors.toList());
-
-        if (!overlappingReservations.isEmpty()) {
+        if (hasOverlappingReservation(reservation.getClassroom().getId(), reservation.getStartTime(), reservation.getEndTime(), reservation.getId())) {
             throw new InvalidReservationException(
                  String.format("El aula no está disponible en el nuevo horario solicitado: %s de %s a %s. (Puede haber una reserva PENDIENTE o CONFIRMADA en esta franja).",
                             reservation.getClassroom().getName(), reservation.getStartTime().toString(), reservation.getEndTime().toString())
             );
         }
 
-        Reservation updatedReservation = reservationRepository.save(reservation);
+        Reservation updatedReservation = saveAndFlushChecked(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.updated(before, ReservationSnapshot.of(updatedReservation)));
         return convertToDTO(updatedReservation);
     }
 
@@ -394,7 +696,42 @@ public class ReservationService {
         if (!canDelete) {
             throw new UnauthorizedAccessException("No tiene permiso para eliminar esta reserva.");
         }
+        classroomWriteLocks.lockUntilCompletion(reservation.getClassroom().getId());
         reservationRepository.delete(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.deleted(ReservationSnapshot.of(reservation)));
+    }
+
+    // The in-memory index answers the common case; the query is only used until the index has been built.
+    private boolean hasOverlappingReservation(String classroomId, Instant startTime, Instant endTime, String excludeReservationId) {
+        if (!endTime.isAfter(startTime)) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (!overlapPrecheckEnabled && overlapConstraint.isInstalled()) {
+            return false; // The exclusion constraint rejects the write instead
+        }
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.hasConflict(classroomId, startTime, endTime, excludeReservationId);
+        }
+        List<Reservation> overlappingReservations = excludeReservationId == null
+                ? reservationRepository.findOverlappingReservations(classroomId, startTime, endTime)
+                : reservationRepository.findOverlappingReservationsExcludingSelf(classroomId, startTime, endTime, excludeReservationId);
+        return !overlappingReservations.isEmpty();
+    }
+
+    // Flushing inside the method surfaces the exclusion constraint here, where it can become a 400 instead of a commit failure.
+    private Reservation saveAndFlushChecked(Reservation reservation) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (RuntimeException e) {
+            if (SqlStates.hasSqlState(e, ReservationOverlapConstraint.EXCLUSION_VIOLATION_SQL_STATE)) {
+                logger.warn("Overlap rejected by database constraint for classroom {} from {} to {}",
+                        reservation.getClassroom().getId(), reservation.getStartTime(), reservation.getEndTime());
+                throw new InvalidReservationException(
+                        String.format("El aula no está disponible en el horario solicitado: %s de %s a %s. (Otra reserva PENDIENTE o CONFIRMADA ocupó esta franja).",
+                                reservation.getClassroom().getName(), reservation.getStartTime().toString(), reservation.getEndTime().toString()));
+            }
+            throw e;
+        }
     }
 
     public ReservationResponseDTO convertToDTO(Reservation reservation) {
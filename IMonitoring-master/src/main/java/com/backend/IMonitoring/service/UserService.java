@@ -2,11 +2,16 @@ package com.backend.IMonitoring.service;
 
 import com.backend.IMonitoring.dto.UserDTO;
 import com.backend.IMonitoring.dto.ReservationResponseDTO;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.event.UserChangedEvent;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol;
 import com.backend.IMonitoring.repository.UserRepository;
 import com.backend.IMonitoring.repository.ReservationRepository;
-import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.repository.VerificationTokenRepository;
 import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
 import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import com.backend.IMonitoring.exceptions.UserAlreadyExistsException;
@@ -14,6 +19,7 @@ import com.backend.IMonitoring.exceptions.InvalidCredentialsException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,7 +39,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ReservationSeriesRepository reservationSeriesRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final ClassroomWriteLocks classroomWriteLocks;
     private final ReservationService reservationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<User> getAllUsers() {
         return userRepository.findAll(Sort.by(Sort.Direction.ASC, "name"));
@@ -105,6 +116,7 @@ public class UserService {
         boolean isPerformingAdmin = performingUser.getRole() == Rol.ADMIN;
         boolean isPerformingCoordinator = performingUser.getRole() == Rol.COORDINADOR;
         boolean isSelf = existingUser.getId().equals(performingUser.getId());
+        boolean revokeTokens = false;
 
         if (!isPerformingAdmin && !isSelf &&
             !(isPerformingCoordinator && isUserManageableByCoordinator(existingUser.getRole()))) {
@@ -126,6 +138,7 @@ public class UserService {
                     throw new UserAlreadyExistsException("El nuevo correo electrónico '" + userDTO.getEmail() + "' ya está en uso por otro usuario.");
                 }
                 existingUser.setEmail(userDTO.getEmail());
+                revokeTokens = true;
             } else {
                  throw new UnauthorizedAccessException("Un Coordinador no puede modificar el email de este tipo de usuario.");
             }
@@ -149,6 +162,7 @@ public class UserService {
                     throw new UnauthorizedAccessException("Un administrador no puede cambiar su propio rol a uno no administrador.");
                 }
                 existingUser.setRole(userDTO.getRole());
+                revokeTokens = true;
             } else if (isPerformingCoordinator) {
                 if (!isUserManageableByCoordinator(existingUser.getRole()) || !isRoleAssignableByCoordinator(userDTO.getRole())) {
                     throw new UnauthorizedAccessException("Un Coordinador no puede asignar/cambiar a este rol o para este usuario.");
@@ -157,13 +171,18 @@ public class UserService {
                     throw new UnauthorizedAccessException("Un Coordinador no puede cambiar su propio rol.");
                 }
                 existingUser.setRole(userDTO.getRole());
+                revokeTokens = true;
             } else {
                 throw new UnauthorizedAccessException("No tienes permiso para cambiar el rol de este usuario.");
             }
         }
 
-
-        return userRepository.save(existingUser);
+        if (revokeTokens) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+        }
+        User savedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(UserChangedEvent.updated(savedUser.getId(), savedUser.getTokenVersion()));
+        return savedUser;
     }
 
     private boolean isUserManageableByCoordinator(Rol userRole) {
@@ -194,7 +213,9 @@ public class UserService {
             }
         }
         userToUpdate.setPassword(passwordEncoder.encode(newPassword));
+        userToUpdate.setTokenVersion(userToUpdate.getTokenVersion() + 1);
         userRepository.save(userToUpdate);
+        eventPublisher.publishEvent(UserChangedEvent.updated(userToUpdate.getId(), userToUpdate.getTokenVersion()));
     }
 
     @Transactional
@@ -219,12 +240,27 @@ public class UserService {
         }
 
         logger.info("Eliminando reservaciones para el usuario: {}", id);
-        List<Reservation> userReservations = reservationRepository.findByUserId(id, Sort.unsorted());
-        if (userReservations != null && !userReservations.isEmpty()) {
-            reservationRepository.deleteAll(userReservations);
-            logger.info("Eliminadas {} reservaciones asociadas al usuario {}", userReservations.size(), id);
+        // Set-based purge in foreign key order: reservations (hot and archived), series, verification tokens, then the
+        // user row. The rooms' stripes and the row locks come before the snapshot, so every row deleted has its event
+        classroomWriteLocks.lockUntilCompletion(reservationRepository.findClassroomIdsForUserPurge(id));
+        reservationRepository.lockForUserPurge(id);
+        List<ReservationSnapshot> purged = reservationRepository.findSnapshotsForUserPurge(id);
+        List<ReservationSnapshot> archived = archivedReservationRepository.findSnapshotsForUserPurge(id);
+        int deleted = reservationRepository.deleteForUserPurge(id);
+        if (deleted != purged.size()) {
+            // A booking in a room that held none of the user's reservations committed after the snapshot
+            throw new IllegalStateException("Se crearon reservas para el usuario " + id + " durante su eliminación. Inténtalo de nuevo.");
+        }
+        archivedReservationRepository.deleteForUserPurge(id);
+        reservationSeriesRepository.deleteByUserId(id);
+        verificationTokenRepository.deleteByUserId(id);
+        userRepository.deleteAllByIdInBatch(List.of(id));
+        purged.forEach(snapshot -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(snapshot)));
+        archived.forEach(snapshot -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(snapshot)));
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
+        if (deleted > 0) {
+            logger.info("Eliminadas {} reservaciones asociadas al usuario {}", deleted, id);
         }
-        userRepository.delete(userToDelete);
     }
 
     public Page<ReservationResponseDTO> getReservationsByUserIdDTO(String userId) {
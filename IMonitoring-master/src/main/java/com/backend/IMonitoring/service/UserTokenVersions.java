@@ -0,0 +1,111 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.UserTokenVersion;
+import com.backend.IMonitoring.event.UserChangedEvent;
+import com.backend.IMonitoring.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of every user's current token version, used when the authentication filter builds the principal from
+ * verified claims instead of loading the user. Changes made through {@link UserService} are applied after commit; the
+ * whole map is re-read from the database in keyset batches every {@code refresh-ms} to pick up changes made by other
+ * instances. Versions only grow, so a bump seen locally is never undone by a refresh that read the row before it.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserTokenVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenVersions.class);
+
+    private final UserRepository userRepository;
+
+    @Value("${app.security.stateless-principal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.security.token-versions.batch-size:1000}")
+    private int batchSize;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    // Deleted users with their deletion time, kept until a refresh that started after the delete has run
+    private final Map<String, Long> deleted = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * TRUE if a token carrying {@code tokenVersion} is current, FALSE if it was revoked, null if this instance does not
+     * know the user's version yet and the caller has to read it from the database.
+     */
+    public Boolean accepts(String userId, long tokenVersion) {
+        if (deleted.containsKey(userId)) {
+            return Boolean.FALSE;
+        }
+        Long current = versions.get(userId);
+        if (current == null || tokenVersion > current) {
+            return null;
+        }
+        return tokenVersion == current;
+    }
+
+    public void register(String userId, long tokenVersion) {
+        if (!deleted.containsKey(userId)) {
+            versions.merge(userId, tokenVersion, Math::max);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            deleted.put(event.userId(), System.currentTimeMillis());
+            versions.remove(event.userId());
+        } else {
+            register(event.userId(), event.tokenVersion());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.security.token-versions.refresh-ms:30000}",
+               fixedDelayString = "${app.security.token-versions.refresh-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            Set<String> seen = new HashSet<>();
+            String after = "";
+            while (true) {
+                List<UserTokenVersion> batch = userRepository.findTokenVersionsAfter(after, PageRequest.of(0, batchSize));
+                for (UserTokenVersion row : batch) {
+                    seen.add(row.id());
+                    register(row.id(), row.tokenVersion());
+                }
+                if (batch.size() < batchSize) {
+                    break;
+                }
+                after = batch.get(batch.size() - 1).id();
+            }
+            versions.keySet().retainAll(seen);
+            deleted.values().removeIf(deletedAt -> deletedAt < started);
+        } catch (DataAccessException e) {
+            logger.warn("Could not refresh user token versions: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+}
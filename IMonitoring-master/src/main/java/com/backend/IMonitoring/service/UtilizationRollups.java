@@ -0,0 +1,292 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.UtilizationReportDTO;
+import com.backend.IMonitoring.event.ReservationChangedEvent;
+import com.backend.IMonitoring.event.ReservationSnapshot;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Booked time of CONFIRMADA reservations per (classroom, date, hour of day) in the application time zone, kept in
+ * memory. It is loaded from the reservation and archive tables at startup and then adjusted after each commit from
+ * {@link ReservationChangedEvent}s: the old version of a reservation is subtracted and the new one added, keyed by id so
+ * replays are harmless. Reports only walk the days in the requested range that actually have bookings.
+ */
+@Service
+@RequiredArgsConstructor
+public class UtilizationRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(UtilizationRollups.class);
+
+    private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ClassroomService classroomService;
+
+    @Value("${app.analytics.utilization.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.time-zone:}")
+    private String timeZone;
+
+    public enum GroupBy { CLASSROOM, BUILDING, TYPE, ALL }
+
+    public enum Interval { NONE, DAY, WEEK, MONTH }
+
+    private record Booking(String classroomId, long start, long end) {
+    }
+
+    private static final class Store {
+        final Map<String, Booking> bookings = new HashMap<>();
+        // classroomId -> epoch day -> booked seconds per hour of day
+        final Map<String, NavigableMap<Long, int[]>> seconds = new HashMap<>();
+    }
+
+    private static final class Accumulator {
+        final String key;
+        final String name;
+        int classroomCount;
+        long totalSeconds;
+        final long[] byHour = new long[24];
+        final long[][] byWeekdayAndHour = new long[7][24];
+        final TreeMap<LocalDate, Long> series = new TreeMap<>();
+
+        Accumulator(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Store store = new Store();
+    private List<ReservationChangedEvent> pendingDuringRebuild;
+    private ZoneId zone;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        zone = timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Utilization rollups disabled.");
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        Store rebuilt = new Store();
+        // Hot table first: a row archived in between is then read twice, which the id key absorbs, rather than missed
+        reservationRepository.findSnapshotsByStatus(ReservationStatus.CONFIRMADA).forEach(s -> put(rebuilt, s));
+        archivedReservationRepository.findSnapshotsByStatus(ReservationStatus.CONFIRMADA).forEach(s -> put(rebuilt, s));
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(event -> apply(rebuilt, event));
+            pendingDuringRebuild = null;
+            store = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Utilization rollups built from {} confirmed reservations in {} ms.",
+                rebuilt.bookings.size(), System.currentTimeMillis() - started);
+    }
+
+    // Archived reservations keep counting: ReservationsArchivedEvent is deliberately not handled here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            apply(store, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Booked minutes of CONFIRMADA reservations between two dates (inclusive) in the application time zone, grouped by
+     * classroom, building or type and optionally bucketed by day, week or month.
+     */
+    public UtilizationReportDTO report(LocalDate from, LocalDate to, GroupBy groupBy, Interval interval,
+                                       String buildingId, ClassroomType type) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("El rango de fechas para las estadísticas de uso no es válido.");
+        }
+        if (!ready) {
+            throw new IllegalStateException("Las estadísticas de uso todavía no están disponibles.");
+        }
+        Map<String, Accumulator> groups = new LinkedHashMap<>();
+        Map<String, Accumulator> byClassroom = new HashMap<>();
+        for (ClassroomDTO classroom : classroomService.getAllClassroomsDTO()) {
+            if ((buildingId != null && !buildingId.isBlank() && !buildingId.equals(classroom.getBuildingId()))
+                    || (type != null && type != classroom.getType())) {
+                continue;
+            }
+            Accumulator group = switch (groupBy) {
+                case CLASSROOM -> groups.computeIfAbsent(classroom.getId(), k -> new Accumulator(k, classroom.getName()));
+                case BUILDING -> classroom.getBuildingId() == null
+                        ? groups.computeIfAbsent("", k -> new Accumulator(null, "Sin edificio"))
+                        : groups.computeIfAbsent(classroom.getBuildingId(), k -> new Accumulator(k, classroom.getBuildingName()));
+                case TYPE -> groups.computeIfAbsent(String.valueOf(classroom.getType()), k -> new Accumulator(k, k));
+                case ALL -> groups.computeIfAbsent("all", k -> new Accumulator(k, "Todas las aulas"));
+            };
+            group.classroomCount++;
+            byClassroom.put(classroom.getId(), group);
+        }
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Accumulator> entry : byClassroom.entrySet()) {
+                NavigableMap<Long, int[]> days = store.seconds.get(entry.getKey());
+                if (days != null) {
+                    accumulate(entry.getValue(), days.subMap(from.toEpochDay(), true, to.toEpochDay(), true), interval);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return UtilizationReportDTO.builder()
+                .from(from)
+                .to(to)
+                .timeZone(zone.getId())
+                .groupBy(groupBy.name())
+                .interval(interval.name())
+                .groups(groups.values().stream()
+                        .sorted(Comparator.comparing(g -> g.name, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .map(g -> toDTO(g, interval))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static void accumulate(Accumulator group, NavigableMap<Long, int[]> days, Interval interval) {
+        for (Map.Entry<Long, int[]> day : days.entrySet()) {
+            LocalDate date = LocalDate.ofEpochDay(day.getKey());
+            int weekday = date.getDayOfWeek().getValue() - 1;
+            long daySeconds = 0;
+            int[] hours = day.getValue();
+            for (int hour = 0; hour < 24; hour++) {
+                group.byHour[hour] += hours[hour];
+                group.byWeekdayAndHour[weekday][hour] += hours[hour];
+                daySeconds += hours[hour];
+            }
+            group.totalSeconds += daySeconds;
+            if (interval != Interval.NONE && daySeconds != 0) {
+                group.series.merge(periodStart(date, interval), daySeconds, Long::sum);
+            }
+        }
+    }
+
+    private static LocalDate periodStart(LocalDate date, Interval interval) {
+        return switch (interval) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            default -> date;
+        };
+    }
+
+    private static UtilizationReportDTO.GroupDTO toDTO(Accumulator group, Interval interval) {
+        long[] byHour = new long[24];
+        long[][] byWeekdayAndHour = new long[7][24];
+        for (int hour = 0; hour < 24; hour++) {
+            byHour[hour] = group.byHour[hour] / 60;
+            for (int weekday = 0; weekday < 7; weekday++) {
+                byWeekdayAndHour[weekday][hour] = group.byWeekdayAndHour[weekday][hour] / 60;
+            }
+        }
+        return UtilizationReportDTO.GroupDTO.builder()
+                .key(group.key)
+                .name(group.name)
+                .classroomCount(group.classroomCount)
+                .bookedMinutes(group.totalSeconds / 60)
+                .minutesByHour(byHour)
+                .minutesByWeekdayAndHour(byWeekdayAndHour)
+                .series(interval == Interval.NONE ? null : group.series.entrySet().stream()
+                        .map(e -> new UtilizationReportDTO.PeriodDTO(e.getKey(), e.getValue() / 60))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private void apply(Store target, ReservationChangedEvent event) {
+        if (event.before() != null) {
+            remove(target, event.before().id());
+        }
+        if (event.after() != null) {
+            put(target, event.after());
+        }
+    }
+
+    private void put(Store target, ReservationSnapshot snapshot) {
+        remove(target, snapshot.id());
+        if (snapshot.status() != ReservationStatus.CONFIRMADA || !snapshot.endTime().isAfter(snapshot.startTime())) {
+            return;
+        }
+        Booking booking = new Booking(snapshot.classroomId(), snapshot.startTime().toEpochMilli(), snapshot.endTime().toEpochMilli());
+        target.bookings.put(snapshot.id(), booking);
+        addSeconds(target, booking, 1);
+    }
+
+    private void remove(Store target, String reservationId) {
+        Booking booking = target.bookings.remove(reservationId);
+        if (booking != null) {
+            addSeconds(target, booking, -1);
+        }
+    }
+
+    // Splits the booking at local hour boundaries; DST transitions are handled by stepping on the instant timeline
+    private void addSeconds(Store target, Booking booking, int sign) {
+        NavigableMap<Long, int[]> days = target.seconds.computeIfAbsent(booking.classroomId(), id -> new TreeMap<>());
+        long cursor = booking.start();
+        while (cursor < booking.end()) {
+            ZonedDateTime at = Instant.ofEpochMilli(cursor).atZone(zone);
+            long next = Math.min(booking.end(), at.truncatedTo(ChronoUnit.HOURS).plusHours(1).toInstant().toEpochMilli());
+            int[] hours = days.computeIfAbsent(at.toLocalDate().toEpochDay(), day -> new int[24]);
+            hours[at.getHour()] += sign * (int) ((next - cursor) / 1000);
+            cursor = next;
+        }
+    }
+}
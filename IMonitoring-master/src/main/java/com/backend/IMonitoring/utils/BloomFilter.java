@@ -0,0 +1,65 @@
+package com.backend.IMonitoring.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, sized for an expected number of entries and a false positive rate. Bit
+ * positions come from double hashing two 64-bit FNV-1a variants; bits are set atomically, so concurrent adds and
+ * lookups need no lock. Entries cannot be removed; callers rebuild the filter instead.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long entries = Math.max(1, expectedEntries);
+        double rate = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long size = (long) Math.ceil(-entries * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (size + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        // Final avalanche so the two seeds give independent-looking positions
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
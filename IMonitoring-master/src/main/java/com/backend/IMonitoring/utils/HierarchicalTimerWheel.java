@@ -0,0 +1,134 @@
+package com.backend.IMonitoring.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@code LEVELS} wheels of {@code 64} buckets, where a bucket of level n spans 64^n ticks.
+ * Scheduling and cancelling are O(1); advancing costs O(1) per elapsed tick plus the cascading of timers into finer
+ * wheels as their deadline approaches. Deadlines beyond the top wheel wait in an overflow list that is re-examined
+ * each time the top wheel wraps. Timers fire at the first tick at or after their deadline, so at most one tick late.
+ * Not thread-safe: the owner serializes access.
+ */
+public final class HierarchicalTimerWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final int LEVELS = 4;
+
+    public static final class Timer<T> {
+        private final long deadlineTick;
+        private final T payload;
+        private boolean cancelled;
+
+        private Timer(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<List<Timer<T>>> buckets = new ArrayList<>(LEVELS * SIZE);
+    private List<Timer<T>> overflow = new ArrayList<>();
+    private List<Timer<T>> due = new ArrayList<>();
+    private long currentTick;
+
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int i = 0; i < LEVELS * SIZE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public Timer<T> schedule(long deadlineMillis, T payload) {
+        Timer<T> timer = new Timer<>(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), payload);
+        if (timer.deadlineTick <= currentTick) {
+            due.add(timer);
+        } else {
+            place(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, passing the payload of every expired, non-cancelled timer to {@code onExpiry}
+     * in deadline order (ties in scheduling order within a bucket).
+     */
+    public void advance(long nowMillis, Consumer<T> onExpiry) {
+        if (!due.isEmpty()) {
+            List<Timer<T>> expired = due;
+            due = new ArrayList<>();
+            fire(expired, onExpiry);
+        }
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                List<Timer<T>> waiting = overflow;
+                overflow = new ArrayList<>();
+                waiting.forEach(this::place);
+            }
+            int topLevel = 0;
+            while (topLevel + 1 < LEVELS && (currentTick & ((1L << (BITS * (topLevel + 1))) - 1)) == 0) {
+                topLevel++;
+            }
+            // Coarser wheels first: what they release may land in a finer bucket that is due in this same tick
+            for (int level = topLevel; level >= 1; level--) {
+                for (Timer<T> timer : take(level, (int) ((currentTick >>> (BITS * level)) & MASK))) {
+                    place(timer);
+                }
+            }
+            fire(take(0, (int) (currentTick & MASK)), onExpiry);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        if (timer.cancelled) {
+            return;
+        }
+        long delta = timer.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (BITS * (level + 1)))) {
+                bucket(level, (int) ((timer.deadlineTick >>> (BITS * level)) & MASK)).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void fire(List<Timer<T>> timers, Consumer<T> onExpiry) {
+        for (Timer<T> timer : timers) {
+            if (!timer.cancelled) {
+                timer.cancelled = true;
+                onExpiry.accept(timer.payload);
+            }
+        }
+    }
+
+    private List<Timer<T>> take(int level, int index) {
+        List<Timer<T>> taken = bucket(level, index);
+        if (taken.isEmpty()) {
+            return taken;
+        }
+        buckets.set(level * SIZE + index, new ArrayList<>());
+        return taken;
+    }
+
+    private List<Timer<T>> bucket(int level, int index) {
+        return buckets.get(level * SIZE + index);
+    }
+}
@@ -0,0 +1,87 @@
+package com.backend.IMonitoring.utils;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders reservations as an RFC 5545 VCALENDAR: UTC date-times, escaped text values and lines folded at 75 octets.
+ * PENDIENTE reservations are published as TENTATIVE events, CONFIRMADA ones as CONFIRMED.
+ */
+public final class ICalendarWriter {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private static final DateTimeFormatter UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private ICalendarWriter() {
+    }
+
+    public static byte[] render(String calendarName, List<ReservationRow> rows, boolean classroomInSummary) {
+        StringBuilder out = new StringBuilder(256 + rows.size() * 320);
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//IMonitoring//Reservas//ES");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "METHOD:PUBLISH");
+        line(out, "X-WR-CALNAME:" + text(calendarName));
+        for (ReservationRow row : rows) {
+            line(out, "BEGIN:VEVENT");
+            line(out, "UID:" + row.id() + "@imonitoring");
+            Instant stamp = row.createdAt() != null ? row.createdAt().atZone(ZoneId.systemDefault()).toInstant() : row.startTime();
+            line(out, "DTSTAMP:" + UTC_DATE_TIME.format(stamp));
+            line(out, "DTSTART:" + UTC_DATE_TIME.format(row.startTime()));
+            line(out, "DTEND:" + UTC_DATE_TIME.format(row.endTime()));
+            String summary = classroomInSummary && row.classroomName() != null
+                    ? row.purpose() + " - " + row.classroomName()
+                    : row.purpose();
+            line(out, "SUMMARY:" + text(summary));
+            String location = row.buildingName() != null ? row.classroomName() + ", " + row.buildingName() : row.classroomName();
+            if (location != null) {
+                line(out, "LOCATION:" + text(location));
+            }
+            line(out, "STATUS:" + (row.status() == ReservationStatus.CONFIRMADA ? "CONFIRMED" : "TENTATIVE"));
+            line(out, "END:VEVENT");
+        }
+        line(out, "END:VCALENDAR");
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    // Folds after 75 octets without splitting a UTF-8 sequence; continuation lines start with a space
+    private static void line(StringBuilder out, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.append(CRLF).append(' ');
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.append(CRLF);
+    }
+}
@@ -0,0 +1,43 @@
+package com.backend.IMonitoring.utils;
+
+import java.util.List;
+
+/**
+ * Static overlap probe over a list of intervals sorted by start: a prefix maximum of ends plus a binary search answers
+ * "does [start, end) overlap any of them" in O(log n) without a tree, which suits one-shot batch checks.
+ */
+public class IntervalSweep {
+
+    private final long[] starts;
+    private final long[] prefixMaxEnd;
+
+    public IntervalSweep(List<IntervalTree.Interval> sortedByStart) {
+        this.starts = new long[sortedByStart.size()];
+        this.prefixMaxEnd = new long[sortedByStart.size()];
+        long runningMax = Long.MIN_VALUE;
+        for (int i = 0; i < sortedByStart.size(); i++) {
+            starts[i] = sortedByStart.get(i).start();
+            runningMax = Math.max(runningMax, sortedByStart.get(i).end());
+            prefixMaxEnd[i] = runningMax;
+        }
+    }
+
+    public boolean overlaps(long start, long end) {
+        int startingBefore = countStartsBefore(end);
+        return startingBefore > 0 && prefixMaxEnd[startingBefore - 1] > start;
+    }
+
+    private int countStartsBefore(long key) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,222 @@
+package com.backend.IMonitoring.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Half-open [start, end) interval tree backed by an AVL tree augmented with the max end of each subtree.
+ * Intervals are keyed by id so they can be replaced or removed in O(log n).
+ * Not thread-safe: callers must synchronize access.
+ */
+public class IntervalTree {
+
+    public record Interval(String id, long start, long end) {
+    }
+
+    private static final class Node {
+        final Interval interval;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+
+    private final Map<String, Interval> byId = new HashMap<>();
+    private Node root;
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    public Interval get(String id) {
+        return byId.get(id);
+    }
+
+    public void put(String id, long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval end must be after its start.");
+        }
+        remove(id);
+        Interval interval = new Interval(id, start, end);
+        root = insert(root, interval);
+        byId.put(id, interval);
+    }
+
+    public boolean remove(String id) {
+        Interval existing = byId.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        root = delete(root, existing);
+        return true;
+    }
+
+    public boolean overlaps(long start, long end, String excludeId) {
+        return findOverlap(root, start, end, excludeId);
+    }
+
+    /**
+     * Intervals overlapping [start, end), ordered by start.
+     */
+    public List<Interval> overlapping(long start, long end) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    /**
+     * First start strictly after {@code instant}, or {@link Long#MAX_VALUE} if there is none.
+     */
+    public long nextStartAfter(long instant) {
+        long best = Long.MAX_VALUE;
+        Node node = root;
+        while (node != null) {
+            if (node.interval.start() > instant) {
+                best = node.interval.start();
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    private static boolean findOverlap(Node node, long start, long end, String excludeId) {
+        while (node != null) {
+            if (node.maxEnd <= start) {
+                return false;
+            }
+            if (node.left != null && node.left.maxEnd > start && findOverlap(node.left, start, end, excludeId)) {
+                return true;
+            }
+            Interval interval = node.interval;
+            if (interval.start() >= end) {
+                return false;
+            }
+            if (interval.end() > start && !interval.id().equals(excludeId)) {
+                return true;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private static void collect(Node node, long start, long end, List<Interval> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        Interval interval = node.interval;
+        if (interval.start() >= end) {
+            return;
+        }
+        if (interval.end() > start) {
+            result.add(interval);
+        }
+        collect(node.right, start, end, result);
+    }
+
+    private static int compare(Interval a, Interval b) {
+        int byStart = Long.compare(a.start(), b.start());
+        return byStart != 0 ? byStart : a.id().compareTo(b.id());
+    }
+
+    private static Node insert(Node node, Interval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return rebalance(node);
+    }
+
+    private static Node delete(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = delete(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.interval);
+            replacement.right = delete(node.right, successor.interval);
+            replacement.left = node.left;
+            node = replacement;
+        }
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.interval.end();
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,141 @@
+package com.backend.IMonitoring.utils;
+
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.ReservationStatus;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses reservation rows from CSV with a header line. Recognised columns (any order, case-insensitive):
+ * classroomId, userId, startTime, endTime, purpose, status. Times are ISO-8601 instants.
+ * <p>
+ * Fields follow RFC 4180: a field that starts with a double quote runs to the matching closing quote and may contain
+ * commas, line breaks and doubled quotes. Line numbers in error messages are those of the line where the record starts.
+ */
+public final class ReservationCsvParser {
+
+    private ReservationCsvParser() {
+    }
+
+    public record ParsedRow(ReservationRequestDTO request, String error) {
+    }
+
+    private record Record(int line, List<String> values) {
+        boolean isBlank() {
+            return values.size() == 1 && values.get(0).isBlank();
+        }
+    }
+
+    public static List<ParsedRow> parse(String csv) {
+        List<ParsedRow> rows = new ArrayList<>();
+        if (csv == null || csv.isBlank()) {
+            return rows;
+        }
+        List<Record> records = records(csv.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0).values();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("classroomid") || !columns.containsKey("starttime") || !columns.containsKey("endtime")) {
+            throw new IllegalArgumentException("La cabecera CSV debe incluir al menos classroomId, startTime y endTime.");
+        }
+        for (Record record : records.subList(1, records.size())) {
+            if (record.isBlank()) {
+                continue;
+            }
+            List<String> values = record.values();
+            try {
+                ReservationRequestDTO request = new ReservationRequestDTO();
+                request.setClassroomId(value(values, columns, "classroomid"));
+                request.setUserId(value(values, columns, "userid"));
+                request.setPurpose(value(values, columns, "purpose"));
+                String start = value(values, columns, "starttime");
+                String end = value(values, columns, "endtime");
+                String status = value(values, columns, "status");
+                request.setStartTime(start != null ? Instant.parse(start) : null);
+                request.setEndTime(end != null ? Instant.parse(end) : null);
+                request.setStatus(status != null ? ReservationStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null);
+                rows.add(new ParsedRow(request, null));
+            } catch (DateTimeParseException e) {
+                rows.add(new ParsedRow(null, "Fecha inválida en la línea " + record.line() + ": " + e.getParsedString()));
+            } catch (IllegalArgumentException e) {
+                rows.add(new ParsedRow(null, "Estado inválido en la línea " + record.line() + "."));
+            }
+        }
+        return rows;
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Single pass over the input; CRLF, LF and lone CR end a record unless they are inside a quoted field
+    private static List<Record> records(String csv) {
+        List<Record> records = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        int line = 1;
+        int recordLine = 1;
+        int quoteLine = 1;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    if (c == '\n' || (c == '\r' && (i + 1 == csv.length() || csv.charAt(i + 1) != '\n'))) {
+                        line++;
+                    }
+                    current.append(c);
+                }
+            } else if (c == '"' && atFieldStart) {
+                quoted = true;
+                atFieldStart = false;
+                quoteLine = line;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+                atFieldStart = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                values.add(current.toString());
+                records.add(new Record(recordLine, values));
+                values = new ArrayList<>();
+                current.setLength(0);
+                atFieldStart = true;
+                recordLine = ++line;
+            } else {
+                // Spaces before an opening quote are tolerated; they are trimmed with the rest of the value
+                current.append(c);
+                atFieldStart = atFieldStart && c == ' ';
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar en el campo que empieza en la línea " + quoteLine + ".");
+        }
+        if (!values.isEmpty() || current.length() > 0) {
+            values.add(current.toString());
+            records.add(new Record(recordLine, values));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.IMonitoring.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort field, the value of that field and the id of the last row of a page, Base64url-encoded.
+ */
+public record ReservationCursor(String sortField, String value, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}; returns null for a blank cursor, meaning the first page.
+     */
+    public static ReservationCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido.");
+            }
+            return new ReservationCursor(raw.substring(0, first), raw.substring(first + 1, last), raw.substring(last + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido.", e);
+        }
+    }
+}
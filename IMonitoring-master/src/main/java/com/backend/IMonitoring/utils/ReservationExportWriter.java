@@ -0,0 +1,160 @@
+package com.backend.IMonitoring.utils;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes reservation rows one at a time as CSV (with a header line, same columns as {@link ReservationRow}) or as
+ * NDJSON (one {@code ReservationResponseDTO} per line). Nothing is kept besides the output buffer.
+ */
+public abstract class ReservationExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Formato de exportación no soportado: " + value + ". Use csv o ndjson.");
+            }
+        }
+    }
+
+    public static ReservationExportWriter open(Format format, OutputStream out, ObjectMapper objectMapper) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return format == Format.CSV ? new Csv(writer) : new Ndjson(writer, objectMapper);
+    }
+
+    public abstract void write(ReservationRow row);
+
+    public abstract void finish();
+
+    private static final class Csv extends ReservationExportWriter {
+        private final Writer writer;
+
+        Csv(Writer writer) {
+            this.writer = writer;
+            line("id", "purpose", "startTime", "endTime", "status", "createdAt",
+                    "userId", "userName", "userEmail", "userRole",
+                    "classroomId", "classroomName", "classroomType", "buildingName");
+        }
+
+        @Override
+        public void write(ReservationRow row) {
+            line(row.id(), row.purpose(), str(row.startTime()), str(row.endTime()), str(row.status()), str(row.createdAt()),
+                    row.userId(), row.userName(), row.userEmail(), str(row.userRole()),
+                    row.classroomId(), row.classroomName(), str(row.classroomType()), row.buildingName());
+        }
+
+        @Override
+        public void finish() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void line(String... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(escape(values[i]));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String str(Object value) {
+            return value == null ? null : value.toString();
+        }
+
+        // RFC 4180 quoting; cells that a spreadsheet would evaluate as a formula are prefixed with a quote
+        private static String escape(String value) {
+            if (value == null || value.isEmpty()) {
+                return "";
+            }
+            char first = value.charAt(0);
+            if (first == '=' || first == '+' || first == '-' || first == '@') {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+    }
+
+    private static final class Ndjson extends ReservationExportWriter {
+        private final Writer writer;
+        private final SequenceWriter sequence;
+        private boolean empty = true;
+
+        Ndjson(Writer writer, ObjectMapper objectMapper) {
+            this.writer = writer;
+            try {
+                this.sequence = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(ReservationRow row) {
+            try {
+                sequence.write(row.toResponseDTO());
+                empty = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() {
+            try {
+                sequence.flush();
+                if (!empty) {
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.IMonitoring.utils;
+
+/**
+ * Word-wise helpers over {@code long[]} bitmaps where bit {@code i} represents time slot {@code i}.
+ * Ranges are half-open: [fromSlot, toSlot).
+ */
+public final class SlotBitmap {
+
+    private SlotBitmap() {
+    }
+
+    public static long[] create(int slots) {
+        return new long[(slots + 63) >>> 6];
+    }
+
+    public static void set(long[] words, int fromSlot, int toSlot) {
+        if (fromSlot >= toSlot) {
+            return;
+        }
+        int firstWord = fromSlot >>> 6;
+        int lastWord = (toSlot - 1) >>> 6;
+        long firstMask = -1L << fromSlot;
+        long lastMask = -1L >>> -toSlot;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    public static boolean any(long[] words, int fromSlot, int toSlot) {
+        if (fromSlot >= toSlot) {
+            return false;
+        }
+        int firstWord = fromSlot >>> 6;
+        int lastWord = (toSlot - 1) >>> 6;
+        long firstMask = -1L << fromSlot;
+        long lastMask = -1L >>> -toSlot;
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (words[i] != 0) {
+                return true;
+            }
+        }
+        return (words[lastWord] & lastMask) != 0;
+    }
+
+    public static boolean get(long[] words, int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Renders [fromSlot, toSlot) as a string of '1' (busy) and '0' (free) characters.
+     */
+    public static String toString(long[] words, int fromSlot, int toSlot) {
+        StringBuilder builder = new StringBuilder(Math.max(0, toSlot - fromSlot));
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            builder.append(get(words, slot) ? '1' : '0');
+        }
+        return builder.toString();
+    }
+}
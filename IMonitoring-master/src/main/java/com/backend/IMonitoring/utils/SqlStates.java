@@ -0,0 +1,29 @@
+package com.backend.IMonitoring.utils;
+
+import java.sql.SQLException;
+
+public final class SqlStates {
+
+    private SqlStates() {
+    }
+
+    /**
+     * Whether {@code throwable} was caused by a {@link SQLException} with the given SQLState, whatever the wrapping
+     * (Spring's DataAccessException, Hibernate's JDBCException or a PersistenceException).
+     */
+    public static boolean hasSqlState(Throwable throwable, String sqlState) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    if (sqlState.equals(next.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.backend.IMonitoring.utils;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Weekly BYDAY recurrence expanded lazily in wall-clock time of {@code zone}, so DST changes keep the local start time.
+ * Follows RFC 5545 semantics: COUNT includes occurrences later removed by exception dates.
+ */
+public class WeeklyRecurrence implements Iterable<WeeklyRecurrence.Occurrence> {
+
+    public record Occurrence(Instant start, Instant end) {
+    }
+
+    private final ZonedDateTime firstStart;
+    private final Duration duration;
+    private final Set<DayOfWeek> days;
+    private final int intervalWeeks;
+    private final LocalDate until;
+    private final Integer count;
+    private final Set<LocalDate> exceptionDates;
+
+    public WeeklyRecurrence(Instant firstStart, Instant firstEnd, ZoneId zone, Set<DayOfWeek> days,
+                            int intervalWeeks, LocalDate until, Integer count, Set<LocalDate> exceptionDates) {
+        if (until == null && count == null) {
+            throw new IllegalArgumentException("La serie debe indicar una fecha límite o un número de repeticiones.");
+        }
+        if (intervalWeeks < 1) {
+            throw new IllegalArgumentException("El intervalo de semanas debe ser al menos 1.");
+        }
+        this.firstStart = firstStart.atZone(zone);
+        this.duration = Duration.between(firstStart, firstEnd);
+        this.days = (days == null || days.isEmpty()) ? EnumSet.of(this.firstStart.getDayOfWeek()) : EnumSet.copyOf(days);
+        this.intervalWeeks = intervalWeeks;
+        this.until = until;
+        this.count = count;
+        this.exceptionDates = exceptionDates == null ? Set.of() : exceptionDates;
+    }
+
+    @Override
+    public Iterator<Occurrence> iterator() {
+        return new Iterator<>() {
+            private final LocalTime time = firstStart.toLocalTime();
+            private LocalDate weekStart = firstStart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            private Iterator<DayOfWeek> dayIterator = days.iterator();
+            private int generated = 0;
+            private Occurrence next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Occurrence next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Occurrence current = next;
+                next = advance();
+                return current;
+            }
+
+            private Occurrence advance() {
+                while (true) {
+                    if (count != null && generated >= count) {
+                        return null;
+                    }
+                    if (!dayIterator.hasNext()) {
+                        weekStart = weekStart.plusWeeks(intervalWeeks);
+                        dayIterator = days.iterator();
+                    }
+                    LocalDate date = weekStart.with(TemporalAdjusters.nextOrSame(dayIterator.next()));
+                    if (date.isBefore(firstStart.toLocalDate())) {
+                        continue;
+                    }
+                    if (until != null && date.isAfter(until)) {
+                        return null;
+                    }
+                    generated++;
+                    if (exceptionDates.contains(date)) {
+                        continue;
+                    }
+                    ZonedDateTime start = ZonedDateTime.of(date, time, firstStart.getZone());
+                    return new Occurrence(start.toInstant(), start.toInstant().plus(duration));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.backend.IMonitoring.config;
+
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.service.ReservationService;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import com.backend.IMonitoring.utils.SqlStates;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class ReservationOverlapConstraintTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private ReservationOverlapConstraint overlapConstraint;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	private final Instant start = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+	@Test
+	void installsExtensionGeneratedColumnAndConstraintIdempotently() {
+		overlapConstraint.install();
+
+		assertThat(overlapConstraint.isInstalled()).isTrue();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM pg_extension WHERE extname = 'btree_gist'", Integer.class)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT is_generated FROM information_schema.columns WHERE table_name = 'reservations' AND column_name = 'time_range'",
+				String.class)).isEqualTo("ALWAYS");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM pg_constraint WHERE conname = ? AND contype = 'x'", Integer.class,
+				ReservationOverlapConstraint.CONSTRAINT_NAME)).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsOverlappingActiveRowsOnly() {
+		User user = createUser(Rol.PROFESOR);
+		Classroom classroom = createClassroom();
+		insertReservationRow(classroom, user, start, start.plus(2, ChronoUnit.HOURS), "CONFIRMADA");
+
+		DataAccessException overlap = catchThrowableOfType(DataAccessException.class, () -> insertReservationRow(
+				classroom, user, start.plus(1, ChronoUnit.HOURS), start.plus(3, ChronoUnit.HOURS), "PENDIENTE"));
+		assertThat(SqlStates.hasSqlState(overlap, ReservationOverlapConstraint.EXCLUSION_VIOLATION_SQL_STATE)).isTrue();
+
+		// Half-open ranges: back-to-back bookings do not overlap, and inactive rows are outside the constraint
+		insertReservationRow(classroom, user, start.plus(2, ChronoUnit.HOURS), start.plus(3, ChronoUnit.HOURS), "PENDIENTE");
+		insertReservationRow(classroom, user, start, start.plus(2, ChronoUnit.HOURS), "CANCELADA");
+		insertReservationRow(classroom, user, start, start.plus(2, ChronoUnit.HOURS), "RECHAZADA");
+		insertReservationRow(createClassroom(), user, start, start.plus(2, ChronoUnit.HOURS), "CONFIRMADA");
+	}
+
+	@Test
+	void serviceMapsExclusionViolationToInvalidReservation() {
+		User admin = createUser(Rol.ADMIN);
+		Classroom classroom = createClassroom();
+		// Written behind the service's back, like a concurrent node would, so only the database knows about it
+		insertReservationRow(classroom, admin, start, start.plus(2, ChronoUnit.HOURS), "CONFIRMADA");
+
+		ReservationRequestDTO request = new ReservationRequestDTO();
+		request.setClassroomId(classroom.getId());
+		request.setStartTime(start.plus(1, ChronoUnit.HOURS));
+		request.setEndTime(start.plus(3, ChronoUnit.HOURS));
+		request.setPurpose("Clase");
+
+		assertThatThrownBy(() -> reservationService.createReservation(request, admin))
+				.isInstanceOf(InvalidReservationException.class)
+				.hasMessageContaining("Otra reserva PENDIENTE o CONFIRMADA ocupó esta franja");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM reservations WHERE classroom_id = ?", Integer.class, classroom.getId())).isEqualTo(1);
+	}
+}
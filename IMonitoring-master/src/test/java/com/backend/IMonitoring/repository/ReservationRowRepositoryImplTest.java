@@ -0,0 +1,91 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationRow;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.support.CapturedSql;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationRowRepositoryImplTest extends PostgresIntegrationTest {
+
+	private static final Pattern JOIN = Pattern.compile("\\bjoin\\b");
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private Specification<Reservation> inClassroom;
+
+	@BeforeEach
+	void setUp() {
+		User user = createUser(Rol.PROFESOR);
+		Classroom classroom = createClassroom();
+		Instant start = Instant.now().plus(5, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+		for (int i = 0; i < 3; i++) {
+			insertReservationRow(classroom, user, start.plus(i, ChronoUnit.HOURS), start.plus(i + 1, ChronoUnit.HOURS), "CONFIRMADA");
+		}
+		String classroomId = classroom.getId();
+		inClassroom = (root, query, cb) -> cb.equal(root.get("classroom").get("id"), classroomId);
+	}
+
+	@Test
+	void partialFirstPageIsOneStatementWithoutCount() {
+		CapturedSql.Result<Page<ReservationRow>> result = CapturedSql.capture(() ->
+				reservationRepository.findRows(inClassroom, PageRequest.of(0, 10, Sort.by("startTime"))));
+
+		assertThat(result.value().getContent()).hasSize(3);
+		assertThat(result.value().getTotalElements()).isEqualTo(3);
+		assertThat(result.statements()).hasSize(1);
+		assertThat(result.statements().get(0).toLowerCase(Locale.ROOT)).doesNotContain("count(");
+	}
+
+	@Test
+	void nestedSortPropertiesReuseTheExplicitJoins() {
+		Sort nested = Sort.by("classroom.building.name", "classroom.name", "user.name", "user.email", "startTime");
+		CapturedSql.Result<Page<ReservationRow>> plain = CapturedSql.capture(() ->
+				reservationRepository.findRows(inClassroom, PageRequest.of(0, 10, Sort.by("startTime"))));
+		CapturedSql.Result<Page<ReservationRow>> sorted = CapturedSql.capture(() ->
+				reservationRepository.findRows(inClassroom, PageRequest.of(0, 10, nested)));
+
+		assertThat(sorted.statements()).hasSize(1);
+		// user, classroom and building: the three joins of the projection, whatever the ordering
+		assertThat(joins(plain.statements().get(0))).isEqualTo(3);
+		assertThat(joins(sorted.statements().get(0))).isEqualTo(3);
+	}
+
+	@Test
+	void fullPageStillCountsTheTotal() {
+		CapturedSql.Result<Page<ReservationRow>> result = CapturedSql.capture(() ->
+				reservationRepository.findRows(inClassroom, PageRequest.of(0, 2, Sort.by("startTime"))));
+
+		assertThat(result.value().getContent()).hasSize(2);
+		assertThat(result.value().getTotalElements()).isEqualTo(3);
+		assertThat(result.statements()).hasSize(2);
+		assertThat(result.statements().get(1).toLowerCase(Locale.ROOT)).contains("count(");
+	}
+
+	private static int joins(String sql) {
+		Matcher matcher = JOIN.matcher(sql.toLowerCase(Locale.ROOT));
+		int count = 0;
+		while (matcher.find()) {
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,81 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.exceptions.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final AtomicReference<String> encodeThread = new AtomicReference<>();
+
+	private final PasswordEncoder blockingDelegate = new PasswordEncoder() {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			encodeThread.set(Thread.currentThread().getName());
+			return "encoded:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return encodedPassword.equals("encoded:" + rawPassword);
+		}
+	};
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BoundedPasswordEncoder encoder =
+			new BoundedPasswordEncoder(blockingDelegate, 1, 1, 10_000, 2, meterRegistry);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.shutdown();
+	}
+
+	@Test
+	void encodeRunsOnTheHashingPool() {
+		assertThat(encoder.encode("secret")).isEqualTo("encoded:secret");
+		assertThat(encodeThread.get()).startsWith("password-hash-");
+	}
+
+	@Test
+	void saturatedPoolThrottlesLoginsButQueuesEncodes() throws Exception {
+		CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "encoded:a"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "encoded:b"));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+
+		// One running, one queued: the next login finds the queue full
+		assertThatThrownBy(() -> encoder.matches("c", "encoded:c")).isInstanceOf(LoginThrottledException.class);
+		// An encode is not refused: it waits for room in the queue and then for the busy thread
+		CompletableFuture<String> encoded = CompletableFuture.supplyAsync(() -> encoder.encode("secret"));
+		assertThatThrownBy(() -> encoded.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(encoded.get(5, TimeUnit.SECONDS)).isEqualTo("encoded:secret");
+		assertThat(encodeThread.get()).startsWith("password-hash-");
+	}
+}
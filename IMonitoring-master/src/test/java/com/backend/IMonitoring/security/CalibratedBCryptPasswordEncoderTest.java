@@ -0,0 +1,39 @@
+package com.backend.IMonitoring.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+	private static final String COST_10 = "$2a$10$abcdefghijklmnopqrstuuN0sbLgEDb0ykGZ7i1Zhf8dLVOyOJl3e";
+	private static final String COST_12 = "$2a$12$abcdefghijklmnopqrstuuN0sbLgEDb0ykGZ7i1Zhf8dLVOyOJl3e";
+	private static final String COST_14 = "$2a$14$abcdefghijklmnopqrstuuN0sbLgEDb0ykGZ7i1Zhf8dLVOyOJl3e";
+
+	@Test
+	void upgradesOnlyWeakerHashesByDefault() {
+		CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(12);
+
+		assertThat(encoder.upgradeEncoding(COST_10)).isTrue();
+		assertThat(encoder.upgradeEncoding(COST_12)).isFalse();
+		assertThat(encoder.upgradeEncoding(COST_14)).isFalse();
+	}
+
+	@Test
+	void downgradesOnlyWhenAllowed() {
+		CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(12, true);
+
+		assertThat(encoder.upgradeEncoding(COST_10)).isTrue();
+		assertThat(encoder.upgradeEncoding(COST_12)).isFalse();
+		assertThat(encoder.upgradeEncoding(COST_14)).isTrue();
+	}
+
+	@Test
+	void ignoresValuesThatAreNotBCrypt() {
+		CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(12, true);
+
+		assertThat(encoder.upgradeEncoding(null)).isFalse();
+		assertThat(encoder.upgradeEncoding("plain")).isFalse();
+		assertThat(encoder.upgradeEncoding("{noop}secret")).isFalse();
+	}
+}
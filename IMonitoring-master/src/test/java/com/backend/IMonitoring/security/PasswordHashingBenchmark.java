@@ -0,0 +1,106 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.exceptions.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manual benchmark, not run by the test suite. Prints the per-hash latency of each BCrypt cost on this machine, then
+ * floods a {@link BoundedPasswordEncoder} with concurrent logins and reports accepted logins per second, rejections
+ * and latency percentiles. Compare the output with the cost picked at startup before changing target-ms or the pool.
+ * <p>
+ * Run with {@code gradle passwordHashingBenchmark -PbenchmarkArgs="minCost maxCost clients seconds"}; every argument is
+ * optional.
+ */
+public final class PasswordHashingBenchmark {
+
+	private static final String PASSWORD = "benchmark-password";
+
+	private PasswordHashingBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int minCost = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		int maxCost = args.length > 1 ? Integer.parseInt(args[1]) : 13;
+		int clients = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 4;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+		System.out.printf("%-6s %12s %12s%n", "cost", "ms/hash", "hashes/s");
+		for (int cost = minCost; cost <= maxCost; cost++) {
+			double millis = millisPerHash(cost);
+			System.out.printf("%-6d %12.1f %12.1f%n", cost, millis, 1000.0 / millis);
+		}
+
+		CalibratedBCryptPasswordEncoder bcrypt = CalibratedBCryptPasswordEncoder.calibrated(250, minCost, maxCost, false);
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, threads, 64, 5000, 2, new SimpleMeterRegistry());
+		String stored = bcrypt.encode(PASSWORD);
+		try {
+			flood(bounded, stored, clients, seconds, bcrypt.getCost(), threads);
+		} finally {
+			bounded.shutdown();
+		}
+	}
+
+	private static double millisPerHash(int cost) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+		encoder.encode(PASSWORD);
+		int runs = Math.max(3, 1 << Math.max(0, 12 - cost));
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			encoder.encode(PASSWORD);
+		}
+		return (System.nanoTime() - start) / 1_000_000.0 / runs;
+	}
+
+	private static void flood(BoundedPasswordEncoder encoder, String stored, int clients, int seconds,
+							  int cost, int threads) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		List<Future<List<Long>>> results = new ArrayList<>();
+		for (int c = 0; c < clients; c++) {
+			results.add(pool.submit(() -> {
+				List<Long> latencies = new ArrayList<>();
+				while (System.nanoTime() < deadline) {
+					long start = System.nanoTime();
+					try {
+						encoder.matches(PASSWORD, stored);
+						accepted.incrementAndGet();
+						latencies.add(System.nanoTime() - start);
+					} catch (LoginThrottledException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return latencies;
+			}));
+		}
+		List<Long> latencies = new ArrayList<>();
+		for (Future<List<Long>> result : results) {
+			latencies.addAll(result.get());
+		}
+		pool.shutdown();
+		latencies.sort(null);
+
+		System.out.printf("%nCost %d, %d hashing threads, %d clients for %d s%n", cost, threads, clients, seconds);
+		System.out.printf("accepted %d (%.1f/s), rejected %d%n", accepted.get(), accepted.get() / (double) seconds, rejected.get());
+		if (!latencies.isEmpty()) {
+			System.out.printf("latency ms p50 %.1f, p95 %.1f, p99 %.1f%n",
+					percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+		}
+	}
+
+	private static double percentile(List<Long> sorted, double quantile) {
+		int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+		return sorted.get(Math.max(0, index)) / 1_000_000.0;
+	}
+}
@@ -0,0 +1,81 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.AuthRequest;
+import com.backend.IMonitoring.dto.AuthResponse;
+import com.backend.IMonitoring.exceptions.InvalidCredentialsException;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthServiceLoginTest extends PostgresIntegrationTest {
+
+	private static final String PASSWORD = "contraseña-segura";
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void loginRehashesAWeakerStoredHash() {
+		User user = createUser(Rol.ESTUDIANTE);
+		String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+		jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", weak, user.getId());
+
+		AuthResponse response = authService.authenticate(login(user.getEmail(), PASSWORD));
+
+		assertThat(jwtService.parseValid(response.getToken()).getSubject()).isEqualTo(user.getEmail());
+		String stored = storedPassword(user);
+		assertThat(stored).isNotEqualTo(weak);
+		assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+		assertThat(passwordEncoder.matches(PASSWORD, stored)).isTrue();
+		assertThat(jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE id = ?", Long.class, user.getId()))
+				.isEqualTo(user.getTokenVersion());
+	}
+
+	@Test
+	void rehashNeverOverwritesAPasswordChangedMeanwhile() {
+		User user = createUser(Rol.ESTUDIANTE);
+		String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+		String changed = new BCryptPasswordEncoder(4).encode("otra-contraseña");
+		jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", changed, user.getId());
+
+		Integer updated = transactionTemplate.execute(status ->
+				userRepository.updatePasswordIfUnchanged(user.getId(), weak, "rehashed"));
+
+		assertThat(updated).isZero();
+		assertThat(storedPassword(user)).isEqualTo(changed);
+	}
+
+	@Test
+	void wrongPasswordIsRejected() {
+		User user = createUser(Rol.ESTUDIANTE);
+		jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", passwordEncoder.encode(PASSWORD), user.getId());
+
+		assertThatThrownBy(() -> authService.authenticate(login(user.getEmail(), "incorrecta")))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	private String storedPassword(User user) {
+		return jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, user.getId());
+	}
+
+	private static AuthRequest login(String email, String password) {
+		return AuthRequest.builder().email(email).password(password).build();
+	}
+}
@@ -0,0 +1,76 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.AuthResponse;
+import com.backend.IMonitoring.exceptions.InvalidCredentialsException;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Refresh rotation against PostgreSQL, where a row locked by the request's transaction would block the family
+ * revocation that commits on its own.
+ */
+class AuthServiceRefreshTokenTest extends PostgresIntegrationTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Test
+	void rotatesTheTokenAndRevokesTheFamilyWhenTheOldOneIsReplayed() {
+		User user = createUser(Rol.ESTUDIANTE);
+		String first = refreshTokenStore.issue(user);
+
+		AuthResponse rotated = assertTimeoutPreemptively(TIMEOUT, () -> authService.refreshToken(first));
+
+		assertThat(jwtService.parseValid(rotated.getRefreshToken()).get("fam", String.class)).isEqualTo(family(first));
+		assertTimeoutPreemptively(TIMEOUT, () -> assertThatThrownBy(() -> authService.refreshToken(first))
+				.isInstanceOf(InvalidCredentialsException.class));
+		assertThat(unrevoked(family(first))).isZero();
+		assertTimeoutPreemptively(TIMEOUT, () -> assertThatThrownBy(() -> authService.refreshToken(rotated.getRefreshToken()))
+				.isInstanceOf(InvalidCredentialsException.class));
+	}
+
+	@Test
+	void versionMismatchRevokesTheFamilyWithoutBlocking() {
+		User user = createUser(Rol.PROFESOR);
+		String token = refreshTokenStore.issue(user);
+		// Role, email, password and enabled changes all bump the version
+		jdbcTemplate.update("UPDATE users SET token_version = token_version + 1 WHERE id = ?", user.getId());
+
+		assertTimeoutPreemptively(TIMEOUT, () -> assertThatThrownBy(() -> authService.refreshToken(token))
+				.isInstanceOf(InvalidCredentialsException.class)
+				.hasMessageContaining("La sesión ya no es válida"));
+
+		assertThat(unrevoked(family(token))).isZero();
+		// The stale token was never consumed, and it stays unusable because its family is revoked
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE family_id = ? AND used_at IS NOT NULL",
+				Integer.class, family(token))).isZero();
+		assertTimeoutPreemptively(TIMEOUT, () -> assertThatThrownBy(() -> authService.refreshToken(token))
+				.isInstanceOf(InvalidCredentialsException.class));
+	}
+
+	private String family(String token) {
+		return jwtService.parseValid(token).get("fam", String.class);
+	}
+
+	private int unrevoked(String familyId) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE family_id = ? AND revoked_at IS NULL",
+				Integer.class, familyId);
+	}
+}
@@ -0,0 +1,99 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.utils.IntervalTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClassroomOccupancyGridTest {
+
+	private final ReservationAvailabilityIndex index = mock(ReservationAvailabilityIndex.class);
+	private final ClassroomOccupancyGrid grid = new ClassroomOccupancyGrid(index);
+	private final Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(grid, "slotMinutes", 5);
+		ReflectionTestUtils.setField(grid, "horizonDays", 14);
+		when(index.intervals(any(), any(), any())).thenReturn(List.of());
+	}
+
+	@Test
+	void clearSlotsAreFreeWithoutAskingTheIndex() {
+		Instant from = today.plus(1, ChronoUnit.DAYS);
+
+		assertThat(grid.freeClassrooms(List.of("a"), from, from.plus(1, ChronoUnit.HOURS))).containsExactly("a");
+	}
+
+	@Test
+	void busySlotsAreRefinedAgainstTheIndex() {
+		Instant start = today.plus(1, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS).plus(2, ChronoUnit.MINUTES);
+		Instant end = start.plus(1, ChronoUnit.HOURS);
+		when(index.intervals(eq("a"), any(), any())).thenReturn(List.of(
+				new IntervalTree.Interval("r1", start.toEpochMilli(), end.toEpochMilli())));
+		when(index.hasConflict(eq("a"), any(), any(), isNull())).thenAnswer(invocation -> {
+			Instant from = invocation.getArgument(1);
+			Instant to = invocation.getArgument(2);
+			return from.isBefore(end) && to.isAfter(start);
+		});
+
+		// Same 5-minute slot as the reservation start, but before it
+		Instant slotStart = start.truncatedTo(ChronoUnit.HOURS);
+		assertThat(grid.freeClassrooms(List.of("a"), slotStart, start)).containsExactly("a");
+		assertThat(grid.freeClassrooms(List.of("a"), slotStart, start.plusMillis(1))).isEmpty();
+	}
+
+	@Test
+	void isFreeAnswersForASingleClassroom() {
+		Instant start = today.plus(1, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+		Instant end = start.plus(1, ChronoUnit.HOURS);
+		when(index.intervals(eq("a"), any(), any())).thenReturn(List.of(
+				new IntervalTree.Interval("r1", start.toEpochMilli(), end.toEpochMilli())));
+		when(index.hasConflict("a", start, end, null)).thenReturn(true);
+
+		assertThat(grid.isFree("a", start, end)).isFalse();
+		assertThat(grid.isFree("a", end, end.plus(1, ChronoUnit.HOURS))).isTrue();
+		assertThat(grid.isFree("b", start, end)).isTrue();
+	}
+
+	@Test
+	void rangesBeyondTheHorizonFallBackToTheIndex() {
+		Instant from = today.plus(30, ChronoUnit.DAYS);
+		Instant to = from.plus(1, ChronoUnit.HOURS);
+		when(index.hasConflict("a", from, to, null)).thenReturn(true);
+		when(index.hasConflict("b", from, to, null)).thenReturn(false);
+
+		assertThat(grid.covers(from, to)).isFalse();
+		assertThat(grid.freeClassrooms(List.of("a", "b"), from, to)).containsExactly("b");
+	}
+
+	@Test
+	void rangesStartingBeforeTheHorizonFallBackToTheIndex() {
+		Instant from = today.minus(1, ChronoUnit.DAYS);
+		Instant to = today.plus(1, ChronoUnit.HOURS);
+		when(index.hasConflict("a", from, to, null)).thenReturn(true);
+
+		assertThat(grid.freeClassrooms(List.of("a"), from, to)).isEmpty();
+	}
+
+	@Test
+	void bitmapsAreOnlyRenderedInsideTheHorizon() {
+		Instant from = today.plus(1, ChronoUnit.DAYS);
+
+		assertThat(grid.busyBitmaps(List.of("a"), from, from.plus(30, ChronoUnit.MINUTES))).containsEntry("a", "000000");
+		assertThatThrownBy(() -> grid.busyBitmaps(List.of("a"), from, today.plus(20, ChronoUnit.DAYS)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,117 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.AvailabilityRequest;
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ClassroomOccupancyDTO;
+import com.backend.IMonitoring.exceptions.OccupancyUnavailableException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.utils.IntervalTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClassroomServiceOccupancyTest {
+
+	private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+	private final ReservationAvailabilityIndex index = mock(ReservationAvailabilityIndex.class);
+	private final ClassroomCatalog catalog = mock(ClassroomCatalog.class);
+	private final ClassroomOccupancyGrid grid = new ClassroomOccupancyGrid(index);
+	private final ClassroomService classroomService = new ClassroomService(classroomRepository,
+			mock(BuildingRepository.class), mock(ReservationRepository.class), mock(ArchivedReservationRepository.class),
+			mock(ReservationSeriesRepository.class), mock(ClassroomWriteLocks.class), mock(ApplicationEventPublisher.class),
+			index, grid, mock(OccupancyTimeline.class), mock(AvailabilitySummaryCache.class), catalog);
+	private final Instant from = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+	private final Instant to = from.plus(30, ChronoUnit.MINUTES);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(grid, "slotMinutes", 5);
+		ReflectionTestUtils.setField(grid, "horizonDays", 14);
+		ReflectionTestUtils.setField(grid, "retryAfterSeconds", 7);
+		when(index.isReady()).thenReturn(true);
+		when(index.intervals(any(), any(), any())).thenReturn(List.of());
+		when(catalog.get(any())).thenReturn(new ClassroomCatalog.Snapshot(
+				List.of(classroom("a"), classroom("b")), new byte[0], "\"catalog\"", 0));
+	}
+
+	@Test
+	void bitmapsWhileTheIndexIsLoadingAreAServiceUnavailableWithRetryAfter() {
+		when(index.isReady()).thenReturn(false);
+
+		assertThatThrownBy(() -> classroomService.getOccupancyBitmaps(from, to, List.of("a")))
+				.isInstanceOfSatisfying(OccupancyUnavailableException.class,
+						e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(7));
+	}
+
+	@Test
+	void unknownClassroomIdsAreNotFound() {
+		assertThatThrownBy(() -> classroomService.getOccupancyBitmaps(from, to, List.of("a", "missing")))
+				.isInstanceOf(ResourceNotFoundException.class)
+				.hasMessageContaining("missing");
+	}
+
+	@Test
+	void bitmapsDefaultToTheWholeCatalog() {
+		when(index.intervals(eq("b"), any(), any())).thenReturn(List.of(
+				new IntervalTree.Interval("r1", from.toEpochMilli(), from.plus(10, ChronoUnit.MINUTES).toEpochMilli())));
+
+		ClassroomOccupancyDTO occupancy = classroomService.getOccupancyBitmaps(from, to, null);
+
+		assertThat(occupancy.getBusy()).containsOnlyKeys("a", "b")
+				.containsEntry("a", "000000")
+				.containsEntry("b", "110000");
+		verify(classroomRepository, never()).findAll(any(Sort.class));
+	}
+
+	@Test
+	void availabilityChecksAreAnsweredByTheGridOnceReady() {
+		when(index.intervals(eq("a"), any(), any())).thenReturn(List.of(
+				new IntervalTree.Interval("r1", from.toEpochMilli(), to.toEpochMilli())));
+		when(index.hasConflict("a", from, to, null)).thenReturn(true);
+
+		assertThat(classroomService.checkAvailability(availability("a", from, to))).isFalse();
+		assertThat(classroomService.checkAvailability(availability("a", to, to.plus(1, ChronoUnit.HOURS)))).isTrue();
+		verify(classroomRepository, never()).isAvailableConsideringAllStatuses(anyString(), any(), any());
+	}
+
+	@Test
+	void availabilityChecksFallBackToTheDatabaseWhileTheIndexIsLoading() {
+		when(index.isReady()).thenReturn(false);
+		when(classroomRepository.isAvailableConsideringAllStatuses("a", from, to)).thenReturn(true);
+
+		assertThat(classroomService.checkAvailability(availability("a", from, to))).isTrue();
+	}
+
+	private static ClassroomDTO classroom(String id) {
+		return ClassroomDTO.builder().id(id).name("Aula " + id).build();
+	}
+
+	private static AvailabilityRequest availability(String classroomId, Instant start, Instant end) {
+		AvailabilityRequest request = new AvailabilityRequest();
+		request.setClassroomId(classroomId);
+		request.setStartTime(start);
+		request.setEndTime(end);
+		return request;
+	}
+}
@@ -0,0 +1,140 @@
+package com.backend.IMonitoring.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the locks with a hand-managed transaction synchronization: each "transaction" registers its synchronizations
+ * on the calling thread and completes them explicitly, as the transaction manager would after commit.
+ */
+class ClassroomWriteLocksTest {
+
+	// With two stripes, "a" (97) and "b" (98) land on different stripes
+	private static final String ROOM_A = "a";
+	private static final String ROOM_B = "b";
+
+	@Test
+	void requiresActiveTransaction() {
+		ClassroomWriteLocks locks = new ClassroomWriteLocks(2);
+		assertThatThrownBy(() -> locks.lockUntilCompletion(ROOM_A)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void secondCallMayOnlyReuseHeldStripes() {
+		ClassroomWriteLocks locks = new ClassroomWriteLocks(2);
+		inTransaction(() -> {
+			locks.lockUntilCompletion(ROOM_A);
+			locks.lockUntilCompletion(ROOM_A, null);
+			assertThatThrownBy(() -> locks.lockUntilCompletion(ROOM_B)).isInstanceOf(IllegalStateException.class);
+		});
+		// Completion released the stripes and forgot what was held
+		inTransaction(() -> locks.lockUntilCompletion(ROOM_B, ROOM_A));
+	}
+
+	@Test
+	void holdsStripeUntilTransactionCompletes() throws Exception {
+		ClassroomWriteLocks locks = new ClassroomWriteLocks(2);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch secondLocked = new CountDownLatch(1);
+			TransactionSynchronizationManager.initSynchronization();
+			List<TransactionSynchronization> first;
+			try {
+				locks.lockUntilCompletion(ROOM_A);
+				Future<?> second = executor.submit(() -> inTransaction(() -> {
+					locks.lockUntilCompletion(ROOM_A);
+					secondLocked.countDown();
+				}));
+				assertThat(secondLocked.await(200, TimeUnit.MILLISECONDS)).isFalse();
+				first = TransactionSynchronizationManager.getSynchronizations();
+				TransactionSynchronizationManager.clearSynchronization();
+				first.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+				second.get(5, TimeUnit.SECONDS);
+			} finally {
+				if (TransactionSynchronizationManager.isSynchronizationActive()) {
+					TransactionSynchronizationManager.clearSynchronization();
+				}
+			}
+			assertThat(secondLocked.getCount()).isZero();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// Many writers lock random room sets in opposite orders; sorted acquisition must neither deadlock nor overlap
+	@Test
+	void concurrentMultiRoomWritersNeitherDeadlockNorOverlap() throws Exception {
+		int stripeCount = 8;
+		ClassroomWriteLocks locks = new ClassroomWriteLocks(stripeCount);
+		List<String> rooms = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			rooms.add("classroom-" + i);
+		}
+		AtomicIntegerArray occupancy = new AtomicIntegerArray(rooms.size());
+		AtomicInteger violations = new AtomicInteger();
+		int threads = 16;
+		int iterations = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				workers.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int n = 0; n < iterations; n++) {
+						int first = random.nextInt(rooms.size());
+						int second = random.nextInt(rooms.size());
+						inTransaction(() -> {
+							locks.lockUntilCompletion(rooms.get(second), rooms.get(first));
+							enter(occupancy, first, violations);
+							if (second != first) {
+								enter(occupancy, second, violations);
+								occupancy.decrementAndGet(second);
+							}
+							occupancy.decrementAndGet(first);
+						});
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(violations.get()).isZero();
+	}
+
+	private static void enter(AtomicIntegerArray occupancy, int room, AtomicInteger violations) {
+		if (occupancy.incrementAndGet(room) != 1) {
+			violations.incrementAndGet();
+		}
+		Thread.yield();
+	}
+
+	private static void inTransaction(Runnable work) {
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> synchronizations;
+		try {
+			work.run();
+		} finally {
+			synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+	}
+}
@@ -0,0 +1,153 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.model.OutboxEmail;
+import com.backend.IMonitoring.model.OutboxEmailStatus;
+import com.backend.IMonitoring.repository.OutboxEmailRepository;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.user.MessageDeliveryHandler;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The outbox worker against a real SMTP conversation: GreenMail in process, a {@link JavaMailSenderImpl} pointed at it,
+ * and the outbox on embedded PostgreSQL. Complements the mocked-sender tests with what only a server can show, such as
+ * one connection per batch and how a rejected message surfaces through {@code MailSendException}.
+ */
+class EmailOutboxSmtpTest extends PostgresIntegrationTest {
+
+	private static final String REJECTED = "rechazado@test.local";
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+	@Autowired
+	private OutboxEmailRepository outboxEmailRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final AtomicInteger connections = new AtomicInteger();
+	private EmailOutboxWorker worker;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM email_outbox");
+		// Delivery failures are answered with 451 to the DATA of that one message; the session goes on
+		MessageDeliveryHandler delivery = greenMail.getUserManager().getMessageDeliveryHandler();
+		greenMail.getUserManager().setMessageDeliveryHandler((message, address) -> {
+			if (REJECTED.equals(address.getEmail())) {
+				throw new MessagingException("Mailbox unavailable: " + address.getEmail());
+			}
+			return delivery.handle(message, address);
+		});
+
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+			@Override
+			protected Transport connectTransport() throws MessagingException {
+				connections.incrementAndGet();
+				return super.connectTransport();
+			}
+		};
+		mailSender.setHost("localhost");
+		mailSender.setPort(greenMail.getSmtp().getPort());
+
+		worker = new EmailOutboxWorker(mailSender, outboxEmailRepository, jdbcTemplate, transactionManager,
+				new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(worker, "enabled", true);
+		ReflectionTestUtils.setField(worker, "batchSize", 10);
+		ReflectionTestUtils.setField(worker, "maxBatchesPerRun", 5);
+		ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+		ReflectionTestUtils.setField(worker, "backoffBaseMs", 60_000L);
+		ReflectionTestUtils.setField(worker, "backoffMaxMs", 90_000L);
+		ReflectionTestUtils.setField(worker, "leaseMs", 300_000L);
+		ReflectionTestUtils.setField(worker, "retentionDays", 7);
+	}
+
+	@Test
+	void deliversABatchOverOneConnection() throws Exception {
+		String a = enqueue("a@test.local", "Asunto A");
+		String b = enqueue("b@test.local", "Asunto B");
+		String c = enqueue("c@test.local", "Asunto C");
+
+		worker.run();
+
+		assertThat(connections).hasValue(1);
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(Arrays.stream(received).map(EmailOutboxSmtpTest::recipient))
+				.containsExactlyInAnyOrder("a@test.local", "b@test.local", "c@test.local");
+		assertThat(Arrays.stream(received).map(EmailOutboxSmtpTest::subject))
+				.containsExactlyInAnyOrder("Asunto A", "Asunto B", "Asunto C");
+		for (String id : new String[]{a, b, c}) {
+			assertThat(find(id).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		}
+	}
+
+	@Test
+	void aRejectedMessageIsRetriedAndTheRestOfTheBatchIsSent() {
+		String ok = enqueue("ok@test.local", "Bienvenida");
+		String rejected = enqueue(REJECTED, "Verificación");
+		String after = enqueue("despues@test.local", "Recordatorio");
+
+		Instant before = Instant.now();
+		worker.run();
+
+		assertThat(connections).hasValue(1);
+		assertThat(Arrays.stream(greenMail.getReceivedMessages()).map(EmailOutboxSmtpTest::recipient))
+				.containsExactlyInAnyOrder("ok@test.local", "despues@test.local");
+		assertThat(find(ok).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		assertThat(find(after).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		OutboxEmail retry = find(rejected);
+		assertThat(retry.getStatus()).isEqualTo(OutboxEmailStatus.PENDIENTE);
+		assertThat(retry.getAttempts()).isEqualTo(1);
+		assertThat(retry.getLastError()).contains("451");
+		assertThat(retry.getNextAttemptAt()).isAfter(before.plusSeconds(59));
+	}
+
+	private String enqueue(String recipient, String subject) {
+		return outboxEmailRepository.save(OutboxEmail.builder()
+				.recipient(recipient)
+				.subject(subject)
+				.body("Cuerpo")
+				.attempts(0)
+				.createdAt(Instant.now())
+				.nextAttemptAt(Instant.now().minusSeconds(5))
+				.build()).getId();
+	}
+
+	private OutboxEmail find(String id) {
+		return outboxEmailRepository.findById(id).orElseThrow();
+	}
+
+	private static String recipient(MimeMessage message) {
+		try {
+			return message.getAllRecipients()[0].toString();
+		} catch (MessagingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String subject(MimeMessage message) {
+		try {
+			return message.getSubject();
+		} catch (MessagingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
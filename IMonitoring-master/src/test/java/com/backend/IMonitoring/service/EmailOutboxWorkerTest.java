@@ -0,0 +1,256 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.model.OutboxEmail;
+import com.backend.IMonitoring.model.OutboxEmailStatus;
+import com.backend.IMonitoring.repository.OutboxEmailRepository;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives a worker wired to a mocked {@link JavaMailSender} against embedded PostgreSQL, so claims go through the
+ * {@code FOR UPDATE SKIP LOCKED} statement.
+ */
+class EmailOutboxWorkerTest extends PostgresIntegrationTest {
+
+	private static final long BACKOFF_BASE_MS = 60_000;
+	private static final long BACKOFF_MAX_MS = 90_000;
+	private static final long LEASE_MS = 300_000;
+
+	@Autowired
+	private OutboxEmailRepository outboxEmailRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final JavaMailSender mailSender = mock(JavaMailSender.class);
+	private final List<List<String>> sentBatches = new ArrayList<>();
+	private EmailOutboxWorker worker;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM email_outbox");
+		worker = new EmailOutboxWorker(mailSender, outboxEmailRepository, jdbcTemplate, transactionManager,
+				new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(worker, "enabled", true);
+		ReflectionTestUtils.setField(worker, "batchSize", 10);
+		ReflectionTestUtils.setField(worker, "maxBatchesPerRun", 5);
+		ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+		ReflectionTestUtils.setField(worker, "backoffBaseMs", BACKOFF_BASE_MS);
+		ReflectionTestUtils.setField(worker, "backoffMaxMs", BACKOFF_MAX_MS);
+		ReflectionTestUtils.setField(worker, "leaseMs", LEASE_MS);
+		ReflectionTestUtils.setField(worker, "retentionDays", 7);
+		answerSend(messages -> {
+		});
+	}
+
+	@Test
+	void deliversDueEmailsInOneBatchAndLeavesFutureOnesAlone() {
+		String a = enqueue("a@test.local", 0, Instant.now().minusSeconds(5));
+		String b = enqueue("b@test.local", 0, Instant.now().minusSeconds(5));
+		String later = enqueue("later@test.local", 0, Instant.now().plus(1, ChronoUnit.HOURS));
+
+		worker.run();
+
+		assertThat(sentBatches).containsExactly(List.of("a@test.local", "b@test.local"));
+		assertThat(find(a).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		assertThat(find(a).getSentAt()).isNotNull();
+		assertThat(find(b).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		assertThat(find(later).getStatus()).isEqualTo(OutboxEmailStatus.PENDIENTE);
+		assertThat(find(later).getAttempts()).isZero();
+	}
+
+	@Test
+	void partialFailureOnlyReschedulesTheRejectedMessages() {
+		String ok = enqueue("ok@test.local", 0, Instant.now().minusSeconds(5));
+		String rejected = enqueue("rejected@test.local", 0, Instant.now().minusSeconds(5));
+		answerSend(messages -> {
+			SimpleMailMessage failed = Arrays.stream(messages)
+					.filter(m -> "rejected@test.local".equals(m.getTo()[0]))
+					.findFirst().orElseThrow();
+			throw new MailSendException(Map.of(failed, new IllegalStateException("550 mailbox unavailable")));
+		});
+
+		Instant before = Instant.now();
+		worker.run();
+
+		assertThat(find(ok).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+		OutboxEmail retry = find(rejected);
+		assertThat(retry.getStatus()).isEqualTo(OutboxEmailStatus.PENDIENTE);
+		assertThat(retry.getAttempts()).isEqualTo(1);
+		assertThat(retry.getLastError()).contains("550 mailbox unavailable");
+		assertThat(retry.getNextAttemptAt()).isBetween(before.plusMillis(BACKOFF_BASE_MS),
+				Instant.now().plusMillis(BACKOFF_BASE_MS + BACKOFF_BASE_MS / 5 + 1));
+	}
+
+	@Test
+	void failureWithoutFailedMessagesReschedulesTheWholeBatch() {
+		String a = enqueue("a@test.local", 0, Instant.now().minusSeconds(5));
+		String b = enqueue("b@test.local", 0, Instant.now().minusSeconds(5));
+		answerSend(messages -> {
+			throw new MailSendException("Connection refused");
+		});
+
+		worker.run();
+
+		for (String id : List.of(a, b)) {
+			assertThat(find(id).getStatus()).isEqualTo(OutboxEmailStatus.PENDIENTE);
+			assertThat(find(id).getAttempts()).isEqualTo(1);
+			assertThat(find(id).getLastError()).contains("Connection refused");
+		}
+	}
+
+	@Test
+	void backoffGrowsUpToTheCapAndTheLastAttemptEndsInFallido() {
+		String id = enqueue("down@test.local", 0, Instant.now().minusSeconds(5));
+		answerSend(messages -> {
+			throw new MailSendException("Connection refused");
+		});
+
+		Instant before = Instant.now();
+		worker.run();
+		assertThat(delay(before, find(id))).isBetween(Duration.ofMillis(BACKOFF_BASE_MS),
+				Duration.ofMillis(BACKOFF_BASE_MS + BACKOFF_BASE_MS / 5 + 1000));
+
+		makeDue(id);
+		before = Instant.now();
+		worker.run();
+		// 2 x base exceeds the cap, so the delay is the cap plus jitter
+		assertThat(find(id).getAttempts()).isEqualTo(2);
+		assertThat(delay(before, find(id))).isBetween(Duration.ofMillis(BACKOFF_MAX_MS),
+				Duration.ofMillis(BACKOFF_MAX_MS + BACKOFF_MAX_MS / 5 + 1000));
+
+		makeDue(id);
+		worker.run();
+		OutboxEmail abandoned = find(id);
+		assertThat(abandoned.getStatus()).isEqualTo(OutboxEmailStatus.FALLIDO);
+		assertThat(abandoned.getAttempts()).isEqualTo(3);
+
+		makeDue(id);
+		sentBatches.clear();
+		worker.run();
+		assertThat(sentBatches).isEmpty();
+	}
+
+	@Test
+	void activeLeaseHidesClaimedRowsFromOtherRuns() {
+		String id = enqueue("leased@test.local", 0, Instant.now().minusSeconds(5));
+		assertThat(claim(Instant.now())).extracting(OutboxEmail::getId).containsExactly(id);
+
+		worker.run();
+
+		assertThat(sentBatches).isEmpty();
+		OutboxEmail leased = find(id);
+		assertThat(leased.getStatus()).isEqualTo(OutboxEmailStatus.PENDIENTE);
+		assertThat(leased.getNextAttemptAt()).isAfter(Instant.now().plusMillis(LEASE_MS - 60_000));
+	}
+
+	@Test
+	void expiredLeaseMakesRowsClaimableAgain() {
+		String id = enqueue("crashed@test.local", 0, Instant.now().minus(1, ChronoUnit.HOURS));
+		// A worker that claimed the row and died before recording the outcome: its lease ran out a while ago
+		Instant crashedAt = Instant.now().minusMillis(LEASE_MS).minus(10, ChronoUnit.MINUTES);
+		assertThat(claim(crashedAt)).extracting(OutboxEmail::getId).containsExactly(id);
+
+		worker.run();
+
+		assertThat(sentBatches).containsExactly(List.of("crashed@test.local"));
+		assertThat(find(id).getStatus()).isEqualTo(OutboxEmailStatus.ENVIADO);
+	}
+
+	@Test
+	void concurrentClaimSkipsRowsLockedByAnotherTransaction() throws Exception {
+		String id = enqueue("locked@test.local", 0, Instant.now().minusSeconds(5));
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<List<OutboxEmail>> holder = CompletableFuture.supplyAsync(() ->
+				new TransactionTemplate(transactionManager).execute(status -> {
+					List<OutboxEmail> rows = invokeClaim(Instant.now());
+					claimed.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return rows;
+				}));
+		assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+		try {
+			// Without SKIP LOCKED this would block on the row lock until the holder commits
+			List<OutboxEmail> second = CompletableFuture.supplyAsync(() -> claim(Instant.now())).get(5, TimeUnit.SECONDS);
+			assertThat(second).isEmpty();
+		} finally {
+			release.countDown();
+		}
+		assertThat(holder.get(10, TimeUnit.SECONDS)).extracting(OutboxEmail::getId).containsExactly(id);
+	}
+
+	private interface SendAnswer {
+		void send(SimpleMailMessage[] messages);
+	}
+
+	private void answerSend(SendAnswer answer) {
+		doAnswer(invocation -> {
+			SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+			sentBatches.add(Arrays.stream(messages).map(m -> m.getTo()[0]).sorted().toList());
+			answer.send(messages);
+			return null;
+		}).when(mailSender).send(any(SimpleMailMessage[].class));
+	}
+
+	private String enqueue(String recipient, int attempts, Instant nextAttemptAt) {
+		return outboxEmailRepository.save(OutboxEmail.builder()
+				.recipient(recipient)
+				.subject("Asunto")
+				.body("Cuerpo")
+				.attempts(attempts)
+				.createdAt(Instant.now())
+				.nextAttemptAt(nextAttemptAt)
+				.build()).getId();
+	}
+
+	private List<OutboxEmail> claim(Instant now) {
+		return new TransactionTemplate(transactionManager).execute(status -> invokeClaim(now));
+	}
+
+	private List<OutboxEmail> invokeClaim(Instant now) {
+		return ReflectionTestUtils.invokeMethod(worker, "claim", now);
+	}
+
+	private void makeDue(String id) {
+		jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = now() - interval '1 second' WHERE id = ?", id);
+	}
+
+	private OutboxEmail find(String id) {
+		return outboxEmailRepository.findById(id).orElseThrow();
+	}
+
+	private static Duration delay(Instant before, OutboxEmail email) {
+		return Duration.between(before, email.getNextAttemptAt());
+	}
+}
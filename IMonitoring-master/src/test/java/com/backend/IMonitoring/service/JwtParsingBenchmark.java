@@ -0,0 +1,113 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manual benchmark, not run by the test suite. Measures {@link JwtService#parseValid(String)} as the authentication
+ * filter calls it: concurrent threads validating tokens drawn from a working set, once with the claims cache disabled
+ * (a signature check per call) and once per cache size given. A working set larger than the cache shows the cost of
+ * evictions.
+ * <p>
+ * Run with {@code gradle jwtParsingBenchmark -PbenchmarkArgs="threads seconds workingSet cacheSize..."}; every argument
+ * is optional.
+ */
+public final class JwtParsingBenchmark {
+
+	private static final String SECRET = "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWp3dC1wYXJzaW5nLTAxMjM0NTY3ODk=";
+
+	private JwtParsingBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int workingSet = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+		List<Integer> cacheSizes = new ArrayList<>();
+		cacheSizes.add(0);
+		for (int i = 3; i < args.length; i++) {
+			cacheSizes.add(Integer.parseInt(args[i]));
+		}
+		if (cacheSizes.size() == 1) {
+			cacheSizes.add(10_000);
+			cacheSizes.add(workingSet / 2);
+		}
+
+		System.out.printf("%d threads, %d s per run, %d distinct tokens%n", threads, seconds, workingSet);
+		System.out.printf("%-10s %14s %12s%n", "cache", "validations/s", "us/op");
+		for (int cacheSize : cacheSizes) {
+			JwtService jwtService = jwtService(cacheSize);
+			List<String> tokens = tokens(jwtService, workingSet);
+			// Warm-up run so JIT and the cache are settled before measuring
+			run(jwtService, tokens, threads, 1);
+			long validations = run(jwtService, tokens, threads, seconds);
+			double perSecond = validations / (double) seconds;
+			System.out.printf("%-10d %14.0f %12.2f%n", cacheSize, perSecond, threads * 1_000_000.0 / perSecond);
+		}
+	}
+
+	private static long run(JwtService jwtService, List<String> tokens, int threads, int seconds) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int seed = t;
+				results.add(pool.submit(() -> {
+					long count = 0;
+					int index = seed * 7919;
+					while (System.nanoTime() < deadline) {
+						index = (index + 31) % tokens.size();
+						if (jwtService.parseValid(tokens.get(index)) == null) {
+							throw new IllegalStateException("Token rejected during benchmark");
+						}
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Long> result : results) {
+				total += result.get();
+			}
+			return total;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static JwtService jwtService(int cacheSize) {
+		JwtService jwtService = new JwtService();
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+		ReflectionTestUtils.setField(jwtService, "refreshExpiration", 86_400_000L);
+		ReflectionTestUtils.setField(jwtService, "claimsCacheSize", cacheSize);
+		jwtService.init();
+		return jwtService;
+	}
+
+	private static List<String> tokens(JwtService jwtService, int count) {
+		List<String> tokens = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String id = UUID.randomUUID().toString();
+			tokens.add(jwtService.generateToken(User.builder()
+					.id(id)
+					.name("Usuario " + i)
+					.email(id + "@benchmark.local")
+					.password("unused")
+					.role(Rol.ESTUDIANTE)
+					.enabled(true)
+					.build()));
+		}
+		return tokens;
+	}
+}
@@ -0,0 +1,176 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+	private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1pbnRlZ3JhdGlvbi10ZXN0cy0wMTIzNDU2Nzg5";
+
+	@Test
+	void parseValidReturnsClaimsOfAFreshToken() {
+		JwtService jwtService = jwtService(900_000, 100);
+		User user = user();
+
+		Claims claims = jwtService.parseValid(jwtService.generateToken(user));
+
+		assertThat(claims).isNotNull();
+		assertThat(claims.getSubject()).isEqualTo(user.getEmail());
+		assertThat(claims.get("role", String.class)).isEqualTo("PROFESOR");
+		assertThat(claims.get("ver", Number.class).longValue()).isEqualTo(3);
+	}
+
+	@Test
+	void parseValidRejectsMalformedForgedAndExpiredTokens() {
+		JwtService jwtService = jwtService(900_000, 100);
+		String token = jwtService.generateToken(user());
+		String[] parts = token.split("\\.");
+		String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+		assertThat(jwtService.parseValid("not-a-jwt")).isNull();
+		assertThat(jwtService.parseValid("")).isNull();
+		assertThat(jwtService.parseValid(forged)).isNull();
+		assertThat(jwtService.parseValid(jwtService(-60_000, 100).generateToken(user()))).isNull();
+		assertThat(jwtService.isTokenValid(forged)).isFalse();
+	}
+
+	@Test
+	void aForgedTokenIsNotServedFromTheCacheOfTheGenuineOne() {
+		JwtService jwtService = jwtService(900_000, 100);
+		String token = jwtService.generateToken(user());
+		assertThat(jwtService.parseValid(token)).isNotNull();
+		char first = token.charAt(token.lastIndexOf('.') + 1);
+		String tampered = token.substring(0, token.lastIndexOf('.') + 1) + (first == 'A' ? 'B' : 'A')
+				+ token.substring(token.lastIndexOf('.') + 2);
+
+		assertThat(jwtService.parseValid(tampered)).isNull();
+	}
+
+	@Test
+	void aTokenSeenAgainIsServedFromTheCache() {
+		JwtService jwtService = jwtService(900_000, 100);
+		String token = jwtService.generateToken(user());
+
+		Claims first = jwtService.parseValid(token);
+		Claims second = jwtService.parseValid(token);
+
+		assertThat(second).isSameAs(first);
+		assertThat(cache(jwtService)).hasSize(1);
+	}
+
+	@Test
+	void disabledCacheVerifiesEveryTime() {
+		JwtService jwtService = jwtService(900_000, 0);
+		String token = jwtService.generateToken(user());
+
+		Claims first = jwtService.parseValid(token);
+		Claims second = jwtService.parseValid(token);
+
+		assertThat(second).isNotNull().isNotSameAs(first);
+		assertThat(cache(jwtService)).isEmpty();
+	}
+
+	@Test
+	void cachedClaimsAreDroppedOnceTheTokenExpires() throws InterruptedException {
+		// JWT expirations have second precision, so the token lives one to two seconds
+		JwtService jwtService = jwtService(1_000, 100);
+		String token = jwtService.generateToken(user());
+		Claims claims = jwtService.parseValid(token);
+		assertThat(claims).isNotNull();
+		assertThat(cache(jwtService)).hasSize(1);
+
+		long wait = claims.getExpiration().getTime() - System.currentTimeMillis() + 50;
+		Thread.sleep(Math.max(0, wait));
+
+		assertThat(jwtService.parseValid(token)).isNull();
+		assertThat(cache(jwtService)).isEmpty();
+	}
+
+	@Test
+	void cacheStaysWithinItsCapacity() {
+		JwtService jwtService = jwtService(900_000, 20);
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			tokens.add(jwtService.generateToken(user()));
+		}
+
+		tokens.forEach(token -> assertThat(jwtService.parseValid(token)).isNotNull());
+
+		assertThat(cache(jwtService).size()).isBetween(1, 20);
+		tokens.forEach(token -> assertThat(jwtService.parseValid(token)).isNotNull());
+	}
+
+	@Test
+	void concurrentLookupsAllSeeValidClaims() throws Exception {
+		JwtService jwtService = jwtService(900_000, 50);
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			tokens.add(jwtService.generateToken(user()));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int offset = t;
+				results.add(pool.submit(() -> {
+					int valid = 0;
+					for (int i = 0; i < 1000; i++) {
+						String token = tokens.get((i * 7 + offset) % tokens.size());
+						if (jwtService.parseValid(token) != null) {
+							valid++;
+						}
+					}
+					return valid;
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(1000);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(cache(jwtService).size()).isLessThanOrEqualTo(50 + 8);
+	}
+
+	private static JwtService jwtService(long expirationMs, int cacheSize) {
+		JwtService jwtService = new JwtService();
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.setField(jwtService, "jwtExpiration", expirationMs);
+		ReflectionTestUtils.setField(jwtService, "refreshExpiration", 86_400_000L);
+		ReflectionTestUtils.setField(jwtService, "claimsCacheSize", cacheSize);
+		jwtService.init();
+		return jwtService;
+	}
+
+	private static User user() {
+		String id = UUID.randomUUID().toString();
+		return User.builder()
+				.id(id)
+				.name("Usuario " + id)
+				.email(id + "@test.local")
+				.password("{noop}password")
+				.role(Rol.PROFESOR)
+				.enabled(true)
+				.tokenVersion(3)
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Claims> cache(JwtService jwtService) {
+		return (Map<String, Claims>) ReflectionTestUtils.getField(jwtService, "claimsCache");
+	}
+}
@@ -0,0 +1,124 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.ArchivedReservation;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ArchivedReservationRepository;
+import com.backend.IMonitoring.support.CapturedSql;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * User and classroom deletion against PostgreSQL: hot and archived reservations go with the subject, and the in-memory
+ * availability index hears about every deleted row.
+ */
+class PurgeTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ClassroomService classroomService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private ArchivedReservationRepository archivedReservationRepository;
+
+	private final Instant start = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+	@Test
+	void deletingAUserRemovesItsHotAndArchivedReservations() {
+		User admin = createUser(Rol.ADMIN);
+		User user = createUser(Rol.PROFESOR);
+		User other = createUser(Rol.PROFESOR);
+		Classroom classroom = createClassroom();
+		reservationService.createReservation(request(classroom, user, start), admin);
+		reservationService.createReservation(request(classroom, other, start.plus(3, ChronoUnit.HOURS)), admin);
+		archive(classroom, user);
+		String othersArchived = archive(classroom, other);
+		assertThat(availabilityIndex.hasConflict(classroom.getId(), start, start.plus(1, ChronoUnit.HOURS), null)).isTrue();
+
+		List<String> statements = CapturedSql.capture(() -> {
+			userService.deleteUser(user.getId(), admin);
+			return null;
+		}).statements();
+
+		// The rows are locked before they are read, which keeps the archiver (SKIP LOCKED) off them
+		assertThat(statements).anySatisfy(sql -> assertThat(sql.toLowerCase()).contains("for no key update", "from reservations"));
+		assertThat(userRepository.existsById(user.getId())).isFalse();
+		assertThat(count("SELECT count(*) FROM reservations WHERE user_id = ?", user.getId())).isZero();
+		assertThat(count("SELECT count(*) FROM reservations_archive WHERE user_id = ?", user.getId())).isZero();
+		assertThat(availabilityIndex.hasConflict(classroom.getId(), start, start.plus(1, ChronoUnit.HOURS), null)).isFalse();
+		// Other users' rows in the same room stay
+		assertThat(count("SELECT count(*) FROM reservations WHERE user_id = ?", other.getId())).isEqualTo(1);
+		assertThat(archivedReservationRepository.existsById(othersArchived)).isTrue();
+		assertThat(availabilityIndex.hasConflict(classroom.getId(), start.plus(3, ChronoUnit.HOURS),
+				start.plus(4, ChronoUnit.HOURS), null)).isTrue();
+	}
+
+	@Test
+	void deletingAClassroomRemovesItsHotAndArchivedReservations() {
+		User admin = createUser(Rol.ADMIN);
+		Classroom classroom = createClassroom();
+		Classroom kept = createClassroom();
+		reservationService.createReservation(request(classroom, admin, start), admin);
+		archive(classroom, admin);
+		String keptArchived = archive(kept, admin);
+
+		classroomService.deleteClassroom(classroom.getId());
+
+		assertThat(classroomRepository.existsById(classroom.getId())).isFalse();
+		assertThat(count("SELECT count(*) FROM reservations WHERE classroom_id = ?", classroom.getId())).isZero();
+		assertThat(count("SELECT count(*) FROM reservations_archive WHERE classroom_id = ?", classroom.getId())).isZero();
+		assertThat(availabilityIndex.hasConflict(classroom.getId(), start, start.plus(1, ChronoUnit.HOURS), null)).isFalse();
+		assertThat(archivedReservationRepository.existsById(keptArchived)).isTrue();
+	}
+
+	private ReservationRequestDTO request(Classroom classroom, User user, Instant from) {
+		ReservationRequestDTO request = new ReservationRequestDTO();
+		request.setClassroomId(classroom.getId());
+		request.setUserId(user.getId());
+		request.setStartTime(from);
+		request.setEndTime(from.plus(2, ChronoUnit.HOURS));
+		request.setPurpose("Clase");
+		return request;
+	}
+
+	private String archive(Classroom classroom, User user) {
+		Instant past = Instant.now().minus(400, ChronoUnit.DAYS);
+		return archivedReservationRepository.save(ArchivedReservation.builder()
+				.id(UUID.randomUUID().toString())
+				.purpose("Histórica")
+				.startTime(past)
+				.endTime(past.plus(1, ChronoUnit.HOURS))
+				.status(ReservationStatus.CONFIRMADA)
+				.createdAt(LocalDateTime.now().minusDays(400))
+				.userId(user.getId())
+				.userName(user.getName())
+				.classroomId(classroom.getId())
+				.classroomName(classroom.getName())
+				.archivedAt(Instant.now())
+				.build()).getId();
+	}
+
+	private int count(String sql, String id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+}
@@ -0,0 +1,123 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.config.ReservationOverlapConstraint;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bookings of one classroom with the exclusion constraint dropped, so only the classroom write locks stand
+ * between the overlap check and the insert.
+ */
+class ReservationConcurrencyTest extends PostgresIntegrationTest {
+
+	private static final int CALLERS = 16;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationOverlapConstraint overlapConstraint;
+
+	private Classroom classroom;
+
+	@BeforeEach
+	void dropConstraint() {
+		jdbcTemplate.execute("ALTER TABLE reservations DROP CONSTRAINT IF EXISTS " + ReservationOverlapConstraint.CONSTRAINT_NAME);
+	}
+
+	@AfterEach
+	void restoreConstraint() {
+		// Overlapping rows left by a failed run would keep the constraint from coming back for the other tests
+		if (classroom != null) {
+			jdbcTemplate.update("DELETE FROM reservations WHERE classroom_id = ?", classroom.getId());
+		}
+		overlapConstraint.install();
+		assertThat(overlapConstraint.isInstalled()).isTrue();
+	}
+
+	@Test
+	void onlyOneOfManyConcurrentOverlappingBookingsSucceeds() throws Exception {
+		classroom = createClassroom();
+		List<User> callers = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			callers.add(createUser(Rol.ADMIN));
+		}
+		Instant base = Instant.now().plus(5, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+		CountDownLatch ready = new CountDownLatch(CALLERS);
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+		List<Future<Boolean>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < CALLERS; i++) {
+				// Staggered by 5 minutes over two-hour slots, so every pair of requests overlaps
+				ReservationRequestDTO request = request(base.plus(5L * i, ChronoUnit.MINUTES));
+				User caller = callers.get(i);
+				results.add(pool.submit(() -> {
+					ready.countDown();
+					go.await();
+					try {
+						reservationService.createReservation(request, caller);
+						return true;
+					} catch (InvalidReservationException e) {
+						return false;
+					}
+				}));
+			}
+			assertThat(ready.await(30, TimeUnit.SECONDS)).isTrue();
+			go.countDown();
+
+			int created = 0;
+			for (Future<Boolean> result : results) {
+				try {
+					if (result.get(60, TimeUnit.SECONDS)) {
+						created++;
+					}
+				} catch (ExecutionException e) {
+					throw new AssertionError("Booking failed with something other than a rejected overlap", e.getCause());
+				}
+			}
+			assertThat(created).isEqualTo(1);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM reservations WHERE classroom_id = ? AND status IN ('PENDIENTE', 'CONFIRMADA')",
+				Integer.class, classroom.getId())).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM reservations a JOIN reservations b ON a.classroom_id = b.classroom_id AND a.id < b.id " +
+						"AND a.start_time < b.end_time AND b.start_time < a.end_time WHERE a.classroom_id = ?",
+				Integer.class, classroom.getId())).isZero();
+	}
+
+	private ReservationRequestDTO request(Instant start) {
+		ReservationRequestDTO request = new ReservationRequestDTO();
+		request.setClassroomId(classroom.getId());
+		request.setStartTime(start);
+		request.setEndTime(start.plus(2, ChronoUnit.HOURS));
+		request.setPurpose("Clase");
+		return request;
+	}
+}
@@ -0,0 +1,69 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.BulkReservationResultDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationImportServiceTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationImportService reservationImportService;
+
+	private final Instant start = Instant.now().plus(4, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+	@Test
+	void onlyPendingAndConfirmedRowsConflict() {
+		User admin = createUser(Rol.ADMIN);
+		Classroom classroom = createClassroom();
+		reservationService.createReservation(request(classroom, 0, 2, null), admin);
+
+		BulkReservationResultDTO result = reservationImportService.importReservations(List.of(
+				request(classroom, 1, 3, ReservationStatus.CANCELADA),
+				request(classroom, 0, 2, ReservationStatus.RECHAZADA),
+				request(classroom, 1, 2, ReservationStatus.PENDIENTE),
+				request(classroom, 2, 4, ReservationStatus.CONFIRMADA),
+				request(classroom, 3, 5, ReservationStatus.CONFIRMADA)), admin);
+
+		assertThat(result.getRows()).extracting(BulkReservationResultDTO.RowResult::isAccepted)
+				.containsExactly(true, true, false, true, false);
+		assertThat(result.getRows().get(2).getMessage()).contains("reserva PENDIENTE o CONFIRMADA existente");
+		assertThat(result.getRows().get(4).getMessage()).isEqualTo("Se solapa con la fila 4 del mismo lote.");
+	}
+
+	@Test
+	void inactiveRowsDoNotHoldTheirSlotForLaterRowsOfTheBatch() {
+		User admin = createUser(Rol.ADMIN);
+		Classroom classroom = createClassroom();
+
+		BulkReservationResultDTO result = reservationImportService.importReservations(List.of(
+				request(classroom, 0, 3, ReservationStatus.CANCELADA),
+				request(classroom, 1, 2, ReservationStatus.CONFIRMADA)), admin);
+
+		assertThat(result.getAccepted()).isEqualTo(2);
+	}
+
+	private ReservationRequestDTO request(Classroom classroom, int fromHour, int toHour, ReservationStatus status) {
+		ReservationRequestDTO request = new ReservationRequestDTO();
+		request.setClassroomId(classroom.getId());
+		request.setStartTime(start.plus(fromHour, ChronoUnit.HOURS));
+		request.setEndTime(start.plus(toHour, ChronoUnit.HOURS));
+		request.setPurpose("Importada");
+		request.setStatus(status);
+		return request;
+	}
+}
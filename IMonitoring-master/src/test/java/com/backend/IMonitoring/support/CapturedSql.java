@@ -0,0 +1,39 @@
+package com.backend.IMonitoring.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread while {@link #capture} runs, so statement counts are not
+ * disturbed by scheduled jobs working on other threads. Registered for every integration test through
+ * {@code hibernate.session_factory.statement_inspector}.
+ */
+public class CapturedSql implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+	public record Result<T>(T value, List<String> statements) {
+	}
+
+	public static <T> Result<T> capture(Supplier<T> work) {
+		List<String> statements = new ArrayList<>();
+		STATEMENTS.set(statements);
+		try {
+			return new Result<>(work.get(), statements);
+		} finally {
+			STATEMENTS.remove();
+		}
+	}
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = STATEMENTS.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+}
@@ -0,0 +1,103 @@
+package com.backend.IMonitoring.support;
+
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Base class for tests that need the PostgreSQL features the application relies on (exclusion constraints,
+ * {@code FOR UPDATE SKIP LOCKED}, generated columns). One embedded server is started per JVM and every subclass shares
+ * the application context; Hibernate creates the schema and the outbox worker's schedule is off so tests drive it.
+ * Tests share the database, so each one works on its own users and classrooms.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.backend.IMonitoring.support.CapturedSql",
+		"spring.mail.host=localhost",
+		"jwt.secret-key=dGVzdC1zZWNyZXQta2V5LWZvci1pbnRlZ3JhdGlvbi10ZXN0cy0wMTIzNDU2Nzg5",
+		"jwt.expiration.ms=900000",
+		"jwt.refresh-expiration.ms=86400000",
+		"app.frontend.url=http://localhost:3000",
+		"app.mail.outbox.enabled=false"
+})
+public abstract class PostgresIntegrationTest {
+
+	private static final EmbeddedPostgres POSTGRES = start();
+
+	@Autowired
+	protected JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	protected UserRepository userRepository;
+
+	@Autowired
+	protected BuildingRepository buildingRepository;
+
+	@Autowired
+	protected ClassroomRepository classroomRepository;
+
+	private static EmbeddedPostgres start() {
+		try {
+			return EmbeddedPostgres.builder().start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+		}
+	}
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+	}
+
+	protected User createUser(Rol role) {
+		String suffix = UUID.randomUUID().toString();
+		return userRepository.save(User.builder()
+				.name("Usuario " + suffix)
+				.email(suffix + "@test.local")
+				.password("{noop}password")
+				.role(role)
+				.enabled(true)
+				.build());
+	}
+
+	protected Classroom createClassroom() {
+		String suffix = UUID.randomUUID().toString();
+		Building building = buildingRepository.save(Building.builder().name("Edificio " + suffix).build());
+		return classroomRepository.save(Classroom.builder()
+				.name("Aula " + suffix)
+				.capacity(30)
+				.type(ClassroomType.AULA)
+				.building(building)
+				.build());
+	}
+
+	// Straight to the table, bypassing the service and the events that keep the in-memory indexes current
+	protected String insertReservationRow(Classroom classroom, User user, Instant start, Instant end, String status) {
+		String id = UUID.randomUUID().toString();
+		jdbcTemplate.update("INSERT INTO reservations (id, user_id, classroom_id, start_time, end_time, purpose, status, created_at) " +
+						"VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				id, user.getId(), classroom.getId(), Timestamp.from(start), Timestamp.from(end), "Fila directa", status,
+				Timestamp.valueOf(LocalDateTime.now()));
+		return id;
+	}
+}
@@ -0,0 +1,90 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void hasNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		List<String> added = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String value = UUID.randomUUID().toString();
+			filter.add(value);
+			added.add(value);
+		}
+
+		assertThat(added).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTargetAtCapacity() {
+		int entries = 50_000;
+		BloomFilter filter = new BloomFilter(entries, 0.01);
+		for (int i = 0; i < entries; i++) {
+			filter.add("added-" + i);
+		}
+
+		int probes = 200_000;
+		int falsePositives = 0;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("absent-" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat((double) falsePositives / probes).isLessThan(0.02);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+		assertThat(filter.mightContain("")).isFalse();
+		assertThat(filter.mightContain("anything")).isFalse();
+	}
+
+	@Test
+	void degenerateSizingStillWorks() {
+		BloomFilter filter = new BloomFilter(0, 0);
+		filter.add("a");
+
+		assertThat(filter.mightContain("a")).isTrue();
+		assertThat(new BloomFilter(-5, 2.0).mightContain("a")).isFalse();
+	}
+
+	@Test
+	void concurrentAddsAreNotLost() throws Exception {
+		BloomFilter filter = new BloomFilter(80_000, 0.01);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<String>>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int thread = t;
+				results.add(pool.submit(() -> {
+					List<String> added = new ArrayList<>();
+					for (int i = 0; i < 10_000; i++) {
+						String value = thread + "-" + i;
+						filter.add(value);
+						added.add(value);
+					}
+					return added;
+				}));
+			}
+			for (Future<List<String>> result : results) {
+				assertThat(result.get()).allMatch(filter::mightContain);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
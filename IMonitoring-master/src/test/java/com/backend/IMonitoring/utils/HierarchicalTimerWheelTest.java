@@ -0,0 +1,138 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimerWheelTest {
+
+	@Test
+	void firesAtTheFirstTickAtOrAfterTheDeadline() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 0);
+		List<String> fired = new ArrayList<>();
+		wheel.schedule(105, "a");
+
+		wheel.advance(109, fired::add);
+		assertThat(fired).isEmpty();
+		wheel.advance(110, fired::add);
+		assertThat(fired).containsExactly("a");
+		wheel.advance(1_000, fired::add);
+		assertThat(fired).containsExactly("a");
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextAdvance() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1, 1_000);
+		List<String> fired = new ArrayList<>();
+		wheel.schedule(500, "late");
+		wheel.schedule(1_000, "now");
+
+		wheel.advance(1_000, fired::add);
+
+		assertThat(fired).containsExactly("late", "now");
+	}
+
+	@Test
+	void cancelledTimersNeverFire() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1, 0);
+		List<String> fired = new ArrayList<>();
+		wheel.schedule(10, "kept");
+		wheel.schedule(10, "near").cancel();
+		wheel.schedule(100_000, "far").cancel();
+		wheel.schedule(0, "due").cancel();
+
+		wheel.advance(200_000, fired::add);
+
+		assertThat(fired).containsExactly("kept");
+	}
+
+	@Test
+	void deadlinesBeyondTheTopWheelWaitInOverflow() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1, 0);
+		List<String> fired = new ArrayList<>();
+		long beyondTop = (1L << 24) + 12_345;
+		wheel.schedule(beyondTop, "overflow");
+
+		wheel.advance(beyondTop - 1, fired::add);
+		assertThat(fired).isEmpty();
+		wheel.advance(beyondTop, fired::add);
+		assertThat(fired).containsExactly("overflow");
+	}
+
+	@Test
+	void matchesAPriorityModelUnderRandomSchedulesAndAdvances() {
+		Random random = new Random(3);
+		long start = 1_700_000_000_000L;
+		long tick = 5;
+		HierarchicalTimerWheel<Integer> wheel = new HierarchicalTimerWheel<>(tick, start);
+		Map<Integer, Long> deadlineTicks = new HashMap<>();
+		Map<Integer, HierarchicalTimerWheel.Timer<Integer>> timers = new HashMap<>();
+		Set<Integer> fired = new HashSet<>();
+		long now = start;
+		int next = 0;
+
+		for (int step = 0; step < 3_000; step++) {
+			for (int i = 0; i < random.nextInt(5); i++) {
+				// Mix of near, mid-level and far deadlines, some already past
+				long offset = switch (random.nextInt(4)) {
+					case 0 -> random.nextInt(400) - 50;
+					case 1 -> random.nextInt(20_000);
+					case 2 -> random.nextInt(1_500_000);
+					default -> random.nextInt(40_000_000);
+				};
+				int id = next++;
+				timers.put(id, wheel.schedule(now + offset, id));
+				deadlineTicks.put(id, Math.floorDiv(now + offset + tick - 1, tick));
+			}
+			if (!timers.isEmpty() && random.nextInt(10) == 0) {
+				int id = random.nextInt(next);
+				if (timers.containsKey(id) && !fired.contains(id)) {
+					timers.get(id).cancel();
+					deadlineTicks.remove(id);
+				}
+			}
+
+			now += random.nextInt(random.nextInt(20) == 0 ? 2_000_000 : 2_000);
+			long nowTick = Math.floorDiv(now, tick);
+			List<Integer> firedNow = new ArrayList<>();
+			wheel.advance(now, firedNow::add);
+
+			List<Integer> expected = deadlineTicks.entrySet().stream()
+					.filter(e -> e.getValue() <= nowTick && !fired.contains(e.getKey()))
+					.map(Map.Entry::getKey)
+					.sorted()
+					.toList();
+			assertThat(firedNow.stream().sorted().toList()).isEqualTo(expected);
+			assertThat(firedNow).allMatch(fired::add);
+		}
+	}
+
+	@Test
+	void releasesInDeadlineOrderWithinOneAdvance() {
+		Random random = new Random(5);
+		HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, 0);
+		for (int i = 0; i < 5_000; i++) {
+			long deadline = 1 + random.nextInt(5_000_000);
+			wheel.schedule(deadline, deadline);
+		}
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(5_000_000, fired::add);
+
+		assertThat(fired).hasSize(5_000).isSorted();
+	}
+
+	@Test
+	void rejectsNonPositiveTicks() {
+		assertThatThrownBy(() -> new HierarchicalTimerWheel<String>(0, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
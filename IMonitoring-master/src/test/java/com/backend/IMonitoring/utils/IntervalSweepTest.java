@@ -0,0 +1,59 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalSweepTest {
+
+	@Test
+	void emptyListNeverOverlaps() {
+		assertThat(new IntervalSweep(List.of()).overlaps(0, Long.MAX_VALUE)).isFalse();
+	}
+
+	@Test
+	void intervalsAreHalfOpen() {
+		IntervalSweep sweep = new IntervalSweep(List.of(new IntervalTree.Interval("a", 10, 20)));
+
+		assertThat(sweep.overlaps(0, 10)).isFalse();
+		assertThat(sweep.overlaps(20, 30)).isFalse();
+		assertThat(sweep.overlaps(9, 11)).isTrue();
+		assertThat(sweep.overlaps(19, 21)).isTrue();
+	}
+
+	@Test
+	void longEarlyIntervalCoversLaterGaps() {
+		// The prefix max end keeps the first interval visible behind shorter ones that start later
+		IntervalSweep sweep = new IntervalSweep(List.of(
+				new IntervalTree.Interval("long", 0, 100),
+				new IntervalTree.Interval("short", 10, 20)));
+
+		assertThat(sweep.overlaps(50, 60)).isTrue();
+		assertThat(sweep.overlaps(100, 110)).isFalse();
+	}
+
+	@Test
+	void matchesBruteForce() {
+		Random random = new Random(11);
+		for (int round = 0; round < 300; round++) {
+			List<IntervalTree.Interval> intervals = new ArrayList<>();
+			for (int i = 0; i < random.nextInt(40); i++) {
+				long start = random.nextInt(1_000);
+				intervals.add(new IntervalTree.Interval("r" + i, start, start + 1 + random.nextInt(random.nextBoolean() ? 20 : 300)));
+			}
+			intervals.sort(Comparator.comparingLong(IntervalTree.Interval::start));
+			IntervalSweep sweep = new IntervalSweep(intervals);
+			for (int query = 0; query < 100; query++) {
+				long start = random.nextInt(1_400) - 100;
+				long end = start + 1 + random.nextInt(50);
+				boolean expected = intervals.stream().anyMatch(i -> i.start() < end && i.end() > start);
+				assertThat(sweep.overlaps(start, end)).as("[%d, %d) in %s", start, end, intervals).isEqualTo(expected);
+			}
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+	@Test
+	void intervalsAreHalfOpen() {
+		IntervalTree tree = new IntervalTree();
+		tree.put("a", 10, 20);
+
+		assertThat(tree.overlaps(0, 10, null)).isFalse();
+		assertThat(tree.overlaps(20, 30, null)).isFalse();
+		assertThat(tree.overlaps(19, 21, null)).isTrue();
+		assertThat(tree.overlaps(0, 11, null)).isTrue();
+		assertThat(tree.overlaps(12, 13, null)).isTrue();
+	}
+
+	@Test
+	void excludedIdDoesNotConflictWithItself() {
+		IntervalTree tree = new IntervalTree();
+		tree.put("a", 10, 20);
+		tree.put("b", 30, 40);
+
+		assertThat(tree.overlaps(15, 18, "a")).isFalse();
+		assertThat(tree.overlaps(15, 35, "a")).isTrue();
+	}
+
+	@Test
+	void putReplacesTheIntervalWithTheSameId() {
+		IntervalTree tree = new IntervalTree();
+		tree.put("a", 10, 20);
+		tree.put("a", 50, 60);
+
+		assertThat(tree.size()).isEqualTo(1);
+		assertThat(tree.get("a")).isEqualTo(new IntervalTree.Interval("a", 50, 60));
+		assertThat(tree.overlaps(10, 20, null)).isFalse();
+		assertThat(tree.remove("a")).isTrue();
+		assertThat(tree.remove("a")).isFalse();
+		assertThat(tree.isEmpty()).isTrue();
+	}
+
+	@Test
+	void rejectsEmptyIntervals() {
+		IntervalTree tree = new IntervalTree();
+
+		assertThatThrownBy(() -> tree.put("a", 10, 10)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> tree.put("a", 10, 5)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void nextStartAfterIsStrict() {
+		IntervalTree tree = new IntervalTree();
+		tree.put("a", 10, 20);
+		tree.put("b", 30, 40);
+
+		assertThat(tree.nextStartAfter(0)).isEqualTo(10);
+		assertThat(tree.nextStartAfter(10)).isEqualTo(30);
+		assertThat(tree.nextStartAfter(30)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void sortedInsertsStayBalanced() {
+		IntervalTree tree = new IntervalTree();
+		int n = 4096;
+		for (int i = 0; i < n; i++) {
+			tree.put("r" + i, i * 10L, i * 10L + 5);
+		}
+
+		int height = checkInvariants(tree);
+		assertThat(height).isLessThanOrEqualTo((int) Math.ceil(1.45 * (Math.log(n + 2) / Math.log(2))));
+		// One long interval at the far left must still be found through the augmented max end
+		tree.put("long", -1, n * 10L);
+		checkInvariants(tree);
+		assertThat(tree.overlapping(n * 10L - 1, n * 10L)).extracting(IntervalTree.Interval::id).containsExactly("long");
+	}
+
+	@Test
+	void matchesBruteForceUnderRandomPutsAndRemoves() {
+		Random random = new Random(42);
+		IntervalTree tree = new IntervalTree();
+		Map<String, IntervalTree.Interval> model = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			String id = "r" + random.nextInt(300);
+			if (random.nextInt(4) == 0) {
+				assertThat(tree.remove(id)).isEqualTo(model.remove(id) != null);
+			} else {
+				long start = random.nextInt(10_000);
+				long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 2_000 : 100);
+				tree.put(id, start, end);
+				model.put(id, new IntervalTree.Interval(id, start, end));
+			}
+
+			long queryStart = random.nextInt(10_500) - 250;
+			long queryEnd = queryStart + 1 + random.nextInt(300);
+			List<IntervalTree.Interval> expected = new ArrayList<>();
+			for (IntervalTree.Interval interval : model.values()) {
+				if (interval.start() < queryEnd && interval.end() > queryStart) {
+					expected.add(interval);
+				}
+			}
+			expected.sort(Comparator.comparingLong(IntervalTree.Interval::start).thenComparing(IntervalTree.Interval::id));
+			assertThat(tree.overlapping(queryStart, queryEnd)).isEqualTo(expected);
+			assertThat(tree.overlaps(queryStart, queryEnd, null)).isEqualTo(!expected.isEmpty());
+			String excluded = expected.isEmpty() ? null : expected.get(0).id();
+			assertThat(tree.overlaps(queryStart, queryEnd, excluded)).isEqualTo(expected.size() > 1);
+			long expectedNext = model.values().stream().mapToLong(IntervalTree.Interval::start)
+					.filter(s -> s > queryStart).min().orElse(Long.MAX_VALUE);
+			assertThat(tree.nextStartAfter(queryStart)).isEqualTo(expectedNext);
+
+			if (step % 500 == 0) {
+				checkInvariants(tree);
+				assertThat(tree.size()).isEqualTo(model.size());
+			}
+		}
+		checkInvariants(tree);
+	}
+
+	// Walks the private AVL nodes: heights are exact, siblings differ by at most one, maxEnd is the subtree maximum
+	// and keys are in (start, id) order. Returns the tree height.
+	private static int checkInvariants(IntervalTree tree) {
+		Object root = field(tree, "root");
+		check(root, null, null);
+		return root == null ? 0 : (int) field(root, "height");
+	}
+
+	private static long[] check(Object node, IntervalTree.Interval lower, IntervalTree.Interval upper) {
+		if (node == null) {
+			return new long[]{0, Long.MIN_VALUE};
+		}
+		IntervalTree.Interval interval = (IntervalTree.Interval) field(node, "interval");
+		if (lower != null) {
+			assertThat(order(lower, interval)).isNegative();
+		}
+		if (upper != null) {
+			assertThat(order(interval, upper)).isNegative();
+		}
+		long[] left = check(field(node, "left"), lower, interval);
+		long[] right = check(field(node, "right"), interval, upper);
+		assertThat(Math.abs(left[0] - right[0])).isLessThanOrEqualTo(1);
+		long height = 1 + Math.max(left[0], right[0]);
+		long maxEnd = Math.max(interval.end(), Math.max(left[1], right[1]));
+		assertThat((int) field(node, "height")).isEqualTo(height);
+		assertThat((long) field(node, "maxEnd")).isEqualTo(maxEnd);
+		return new long[]{height, maxEnd};
+	}
+
+	private static int order(IntervalTree.Interval a, IntervalTree.Interval b) {
+		int byStart = Long.compare(a.start(), b.start());
+		return byStart != 0 ? byStart : a.id().compareTo(b.id());
+	}
+
+	private static Object field(Object target, String name) {
+		try {
+			Field field = target.getClass().getDeclaredField(name);
+			field.setAccessible(true);
+			return field.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.backend.IMonitoring.utils;
+
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationCsvParserTest {
+
+	@Test
+	void mapsColumnsByHeaderInAnyOrderAndCase() {
+		List<ReservationCsvParser.ParsedRow> rows = ReservationCsvParser.parse(
+				"\uFEFFPurpose,ENDTIME,classroomId,startTime,status,userId\n" +
+				"Clase,2030-01-01T10:00:00Z,aula-1,2030-01-01T09:00:00Z,confirmada,user-1\n");
+
+		assertThat(rows).hasSize(1);
+		ReservationRequestDTO request = rows.get(0).request();
+		assertThat(rows.get(0).error()).isNull();
+		assertThat(request.getClassroomId()).isEqualTo("aula-1");
+		assertThat(request.getUserId()).isEqualTo("user-1");
+		assertThat(request.getPurpose()).isEqualTo("Clase");
+		assertThat(request.getStartTime()).isEqualTo(Instant.parse("2030-01-01T09:00:00Z"));
+		assertThat(request.getEndTime()).isEqualTo(Instant.parse("2030-01-01T10:00:00Z"));
+		assertThat(request.getStatus()).isEqualTo(ReservationStatus.CONFIRMADA);
+	}
+
+	@Test
+	void quotedFieldsMayContainCommasQuotesAndLineBreaks() {
+		List<ReservationCsvParser.ParsedRow> rows = ReservationCsvParser.parse(
+				"classroomId,startTime,endTime,purpose\r\n" +
+				"aula-1,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,\"Tutoría, grupo \"\"A\"\"\r\nsegunda línea\"\r\n" +
+				"aula-2,2030-01-01T11:00:00Z,2030-01-01T12:00:00Z, \"con espacio\"\r\n");
+
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0).request().getPurpose()).isEqualTo("Tutoría, grupo \"A\"\r\nsegunda línea");
+		assertThat(rows.get(1).request().getClassroomId()).isEqualTo("aula-2");
+		assertThat(rows.get(1).request().getPurpose()).isEqualTo("con espacio");
+	}
+
+	@Test
+	void errorsReportTheLineWhereTheRecordStarts() {
+		List<ReservationCsvParser.ParsedRow> rows = ReservationCsvParser.parse(
+				"classroomId,startTime,endTime,purpose,status\n" +
+				"aula-1,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,\"dos\nlíneas\",\n" +
+				"\n" +
+				"aula-1,ayer,2030-01-01T10:00:00Z,Clase,\n" +
+				"aula-1,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,Clase,APLAZADA\n");
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows.get(0).error()).isNull();
+		assertThat(rows.get(1).error()).isEqualTo("Fecha inválida en la línea 5: ayer");
+		assertThat(rows.get(2).error()).isEqualTo("Estado inválido en la línea 6.");
+	}
+
+	@Test
+	void quoteInsideAnUnquotedFieldIsLiteral() {
+		List<ReservationCsvParser.ParsedRow> rows = ReservationCsvParser.parse(
+				"classroomId,startTime,endTime,purpose\n" +
+				"aula-1,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,Pantalla 27\" nueva\n");
+
+		assertThat(rows.get(0).request().getPurpose()).isEqualTo("Pantalla 27\" nueva");
+	}
+
+	@Test
+	void rejectsUnterminatedQuotes() {
+		assertThatThrownBy(() -> ReservationCsvParser.parse(
+				"classroomId,startTime,endTime,purpose\n" +
+				"aula-1,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,\"sin cerrar\n" +
+				"aula-2,2030-01-01T09:00:00Z,2030-01-01T10:00:00Z,Clase\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("línea 2");
+	}
+
+	@Test
+	void rejectsHeaderWithoutRequiredColumns() {
+		assertThatThrownBy(() -> ReservationCsvParser.parse("classroomId,purpose\naula-1,Clase\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("classroomId, startTime y endTime");
+	}
+
+	@Test
+	void blankInputHasNoRows() {
+		assertThat(ReservationCsvParser.parse(null)).isEmpty();
+		assertThat(ReservationCsvParser.parse("  \n")).isEmpty();
+		assertThat(ReservationCsvParser.parse("classroomId,startTime,endTime")).isEmpty();
+	}
+}
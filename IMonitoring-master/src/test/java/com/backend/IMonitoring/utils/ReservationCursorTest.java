@@ -0,0 +1,48 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationCursorTest {
+
+	@Test
+	void roundTripsThroughAnUrlSafeToken() {
+		ReservationCursor cursor = new ReservationCursor("startTime", "2030-01-07T09:00:00Z", "3f2c1a9e-0000-4000-8000-000000000001");
+
+		String token = cursor.encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		assertThat(ReservationCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void valuesMayContainTheSeparatorAndNonAsciiText() {
+		ReservationCursor cursor = new ReservationCursor("purpose", "Tutoría | grupo A|B", "id-1");
+
+		assertThat(ReservationCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void blankCursorMeansTheFirstPage() {
+		assertThat(ReservationCursor.decode(null)).isNull();
+		assertThat(ReservationCursor.decode("  ")).isNull();
+	}
+
+	@Test
+	void rejectsTokensThatAreNotCursors() {
+		String oneSeparator = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("startTime|value".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> ReservationCursor.decode("not base64!"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("El cursor de paginación no es válido.");
+		assertThatThrownBy(() -> ReservationCursor.decode(oneSeparator))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("El cursor de paginación no es válido.");
+	}
+}
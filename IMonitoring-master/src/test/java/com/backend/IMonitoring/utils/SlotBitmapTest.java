@@ -0,0 +1,73 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotBitmapTest {
+
+	@Test
+	void createRoundsUpToWholeWords() {
+		assertThat(SlotBitmap.create(0)).isEmpty();
+		assertThat(SlotBitmap.create(1)).hasSize(1);
+		assertThat(SlotBitmap.create(64)).hasSize(1);
+		assertThat(SlotBitmap.create(65)).hasSize(2);
+	}
+
+	@Test
+	void rangesAreHalfOpenAcrossWordBoundaries() {
+		long[] bits = SlotBitmap.create(256);
+		SlotBitmap.set(bits, 63, 65);
+
+		assertThat(SlotBitmap.toString(bits, 61, 67)).isEqualTo("001100");
+		assertThat(SlotBitmap.any(bits, 0, 63)).isFalse();
+		assertThat(SlotBitmap.any(bits, 65, 256)).isFalse();
+		assertThat(SlotBitmap.any(bits, 64, 65)).isTrue();
+		assertThat(SlotBitmap.any(bits, 62, 64)).isTrue();
+	}
+
+	@Test
+	void fullWordsAndEmptyRanges() {
+		long[] bits = SlotBitmap.create(256);
+		SlotBitmap.set(bits, 64, 192);
+		SlotBitmap.set(bits, 10, 10);
+
+		assertThat(bits).containsExactly(0L, -1L, -1L, 0L);
+		assertThat(SlotBitmap.any(bits, 10, 10)).isFalse();
+		assertThat(SlotBitmap.any(bits, 0, 64)).isFalse();
+		assertThat(SlotBitmap.any(bits, 191, 192)).isTrue();
+		assertThat(SlotBitmap.any(bits, 192, 256)).isFalse();
+	}
+
+	@Test
+	void matchesABooleanArrayModel() {
+		Random random = new Random(7);
+		int slots = 700;
+		for (int round = 0; round < 200; round++) {
+			long[] bits = SlotBitmap.create(slots);
+			boolean[] model = new boolean[slots];
+			for (int i = 0; i < 1 + random.nextInt(4); i++) {
+				int from = random.nextInt(slots);
+				int to = from + random.nextInt(Math.min(200, slots - from) + 1);
+				SlotBitmap.set(bits, from, to);
+				for (int slot = from; slot < to; slot++) {
+					model[slot] = true;
+				}
+			}
+			for (int query = 0; query < 50; query++) {
+				int from = random.nextInt(slots);
+				int to = from + random.nextInt(slots - from + 1);
+				boolean expected = false;
+				StringBuilder rendered = new StringBuilder();
+				for (int slot = from; slot < to; slot++) {
+					expected |= model[slot];
+					rendered.append(model[slot] ? '1' : '0');
+				}
+				assertThat(SlotBitmap.any(bits, from, to)).isEqualTo(expected);
+				assertThat(SlotBitmap.toString(bits, from, to)).isEqualTo(rendered.toString());
+			}
+		}
+	}
+}
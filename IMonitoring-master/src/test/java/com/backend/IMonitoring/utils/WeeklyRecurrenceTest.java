@@ -0,0 +1,123 @@
+package com.backend.IMonitoring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeeklyRecurrenceTest {
+
+	private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
+	@Test
+	void expandsSelectedDaysInWeekOrder() {
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:30"), MADRID,
+				Set.of(DayOfWeek.WEDNESDAY, DayOfWeek.MONDAY), 1, null, 4, null);
+
+		assertThat(starts(recurrence)).containsExactly(
+				local("2030-01-07T09:00"), local("2030-01-09T09:00"), local("2030-01-14T09:00"), local("2030-01-16T09:00"));
+		assertThat(list(recurrence)).allSatisfy(o ->
+				assertThat(o.end()).isEqualTo(o.start().plusSeconds(90 * 60)));
+	}
+
+	@Test
+	void daysBeforeTheFirstStartInItsWeekAreSkippedWithoutCounting() {
+		// 2030-01-09 is a Wednesday: that week's Monday is before the series starts
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-01-09T09:00"), local("2030-01-09T10:00"), MADRID,
+				Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), 1, null, 3, null);
+
+		assertThat(starts(recurrence)).containsExactly(
+				local("2030-01-09T09:00"), local("2030-01-14T09:00"), local("2030-01-16T09:00"));
+	}
+
+	@Test
+	void defaultsToTheWeekdayOfTheFirstStart() {
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-01-10T09:00"), local("2030-01-10T10:00"), MADRID,
+				null, 1, null, 2, null);
+
+		assertThat(starts(recurrence)).containsExactly(local("2030-01-10T09:00"), local("2030-01-17T09:00"));
+	}
+
+	@Test
+	void keepsTheLocalStartTimeAcrossDaylightSavingChanges() {
+		// Europe/Madrid moves from UTC+1 to UTC+2 on 2030-03-31
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-03-24T10:00"), local("2030-03-24T11:00"), MADRID,
+				Set.of(DayOfWeek.SUNDAY), 1, null, 2, null);
+
+		List<WeeklyRecurrence.Occurrence> occurrences = list(recurrence);
+		assertThat(occurrences.get(0).start()).isEqualTo(Instant.parse("2030-03-24T09:00:00Z"));
+		assertThat(occurrences.get(1).start()).isEqualTo(Instant.parse("2030-03-31T08:00:00Z"));
+		assertThat(occurrences.get(1).end()).isEqualTo(Instant.parse("2030-03-31T09:00:00Z"));
+	}
+
+	@Test
+	void intervalSkipsWeeksAndUntilIsInclusive() {
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				Set.of(DayOfWeek.MONDAY), 2, LocalDate.parse("2030-02-04"), null, null);
+
+		assertThat(starts(recurrence)).containsExactly(
+				local("2030-01-07T09:00"), local("2030-01-21T09:00"), local("2030-02-04T09:00"));
+	}
+
+	@Test
+	void exceptionDatesStillCountTowardsCount() {
+		WeeklyRecurrence recurrence = new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				Set.of(DayOfWeek.MONDAY), 1, null, 3, Set.of(LocalDate.parse("2030-01-14")));
+
+		assertThat(starts(recurrence)).containsExactly(local("2030-01-07T09:00"), local("2030-01-21T09:00"));
+	}
+
+	@Test
+	void countAndUntilTogetherStopAtWhicheverComesFirst() {
+		WeeklyRecurrence byUntil = new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				Set.of(DayOfWeek.MONDAY), 1, LocalDate.parse("2030-01-15"), 10, null);
+		WeeklyRecurrence byCount = new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				Set.of(DayOfWeek.MONDAY), 1, LocalDate.parse("2031-01-01"), 1, null);
+
+		assertThat(list(byUntil)).hasSize(2);
+		assertThat(list(byCount)).hasSize(1);
+	}
+
+	@Test
+	void iteratorIsExhaustedAfterTheLastOccurrence() {
+		Iterator<WeeklyRecurrence.Occurrence> iterator = new WeeklyRecurrence(local("2030-01-07T09:00"),
+				local("2030-01-07T10:00"), MADRID, null, 1, null, 1, null).iterator();
+
+		iterator.next();
+		assertThat(iterator.hasNext()).isFalse();
+		assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+	}
+
+	@Test
+	void requiresAnEndAndAPositiveInterval() {
+		assertThatThrownBy(() -> new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				null, 1, null, null, null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new WeeklyRecurrence(local("2030-01-07T09:00"), local("2030-01-07T10:00"), MADRID,
+				null, 0, null, 3, null)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Instant local(String dateTime) {
+		return LocalDateTime.parse(dateTime).atZone(MADRID).toInstant();
+	}
+
+	private static List<WeeklyRecurrence.Occurrence> list(WeeklyRecurrence recurrence) {
+		List<WeeklyRecurrence.Occurrence> occurrences = new ArrayList<>();
+		recurrence.forEach(occurrences::add);
+		return occurrences;
+	}
+
+	private static List<Instant> starts(WeeklyRecurrence recurrence) {
+		return list(recurrence).stream().map(WeeklyRecurrence.Occurrence::start).toList();
+	}
+}